@@ -0,0 +1,127 @@
+package com.spotify.benchmark;
+
+import com.spotify.config.ConfigLoader;
+import commons.properties.PropertiesManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the config lookups made for every header cell and endpoint, and the access to the config from 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ConfigBenchmark {
+
+    /**
+     * The config used by the steps.
+     */
+    private ConfigLoader configLoader;
+
+    /**
+     * A properties manager reading the same configuration files as the config.
+     */
+    private PropertiesManager propertiesManager;
+
+    /**
+     * The config returned by the synchronized accessor.
+     */
+    private static ConfigLoader synchronizedInstance;
+
+    /**
+     * Loads the config and the configuration files.
+     */
+    @Setup
+    public void setUp() {
+        configLoader = ConfigLoader.getInstance();
+        propertiesManager = new PropertiesManager(ConfigLoader.getConfigFilePaths());
+    }
+
+    /**
+     * Returns the config from 64 threads at a time, through the lock-free holder.
+     *
+     * @return the config
+     */
+    @Benchmark
+    @Threads(64)
+    public ConfigLoader getInstance() {
+        return ConfigLoader.getInstance();
+    }
+
+    /**
+     * Returns the config from 64 threads at a time through a static synchronized lazy accessor, as ConfigLoader.getInstance used to, for comparison.
+     *
+     * @return the config
+     */
+    @Benchmark
+    @Threads(64)
+    public ConfigLoader getInstanceSynchronized() {
+        return synchronizedGetInstance();
+    }
+
+    /**
+     * Reads a single property.
+     *
+     * @return the property value
+     */
+    @Benchmark
+    public String getProperty() {
+        return propertiesManager.getProperty("api.base.uri");
+    }
+
+    /**
+     * Reads a numeric property, parsed when the configuration files were loaded.
+     *
+     * @return the property value
+     */
+    @Benchmark
+    public long getPropertyAsLong() {
+        return propertiesManager.getPropertyAsLong("http.pool.idle.timeout.millis");
+    }
+
+    /**
+     * Resolves a header value without placeholders, as done for the 'Content-Type' header.
+     *
+     * @return the resolved value
+     */
+    @Benchmark
+    public String replacePlaceholdersWithoutProperties() {
+        return configLoader.replacePlaceholdersWithProperties("application/json");
+    }
+
+    /**
+     * Resolves an endpoint with one property placeholder.
+     *
+     * @return the resolved endpoint
+     */
+    @Benchmark
+    public String replacePlaceholdersWithProperties() {
+        return configLoader.replacePlaceholdersWithProperties("users/{{user_id}}/playlists");
+    }
+
+    /**
+     * Static synchronized lazy accessor, as ConfigLoader.getInstance used to be.
+     *
+     * @return the config
+     */
+    private static synchronized ConfigLoader synchronizedGetInstance() {
+        if (synchronizedInstance == null) {
+            synchronizedInstance = ConfigLoader.getInstance();
+        }
+        return synchronizedInstance;
+    }
+}
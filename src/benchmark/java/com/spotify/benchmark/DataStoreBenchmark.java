@@ -0,0 +1,82 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.DataStoreManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the data store lookups made by the request and assertion steps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class DataStoreBenchmark {
+
+    /**
+     * The data store under test.
+     */
+    private DataStoreManager dataStoreManager;
+
+    /**
+     * Stores the variables referenced by the benchmarks.
+     */
+    @Setup
+    public void setUp() {
+        dataStoreManager = new DataStoreManager();
+        dataStoreManager.storeStringValue("user_id", "31ddawwwfblnhu5okxeb4geahrmm");
+        dataStoreManager.storeStringValue("playlist_id_from_post_request", "3cEYpjA9oz9GiPac4AsH4n");
+    }
+
+    /**
+     * Resolves an endpoint with one variable placeholder.
+     *
+     * @return the resolved endpoint
+     */
+    @Benchmark
+    public String resolvePlaceholdersWithData() {
+        return dataStoreManager.resolvePlaceholdersWithData("playlists/{playlist_id_from_post_request}");
+    }
+
+    /**
+     * Resolves an endpoint with two variable placeholders.
+     *
+     * @return the resolved endpoint
+     */
+    @Benchmark
+    public String resolveTwoPlaceholdersWithData() {
+        return dataStoreManager.resolvePlaceholdersWithData("users/{user_id}/playlists/{playlist_id_from_post_request}/tracks");
+    }
+
+    /**
+     * Retrieves a stored value referenced by an expected value of the 'Response body should contains fields' step.
+     *
+     * @return the stored value
+     */
+    @Benchmark
+    public Object convertOrRetrieveStoredValue() {
+        return dataStoreManager.convertOrRetrieveExpectedValue("{playlist_id_from_post_request}", "String");
+    }
+
+    /**
+     * Converts a literal expected value of the 'Response body should contains fields' step.
+     *
+     * @return the converted value
+     */
+    @Benchmark
+    public Object convertExpectedValue() {
+        return dataStoreManager.convertOrRetrieveExpectedValue("400", "Integer");
+    }
+}
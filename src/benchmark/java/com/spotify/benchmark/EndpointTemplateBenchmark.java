@@ -0,0 +1,77 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.DataStoreManager;
+import com.spotify.codeless.support.EndpointTemplate;
+import com.spotify.config.ConfigLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two-pass endpoint resolution (config properties, then data store) with the compiled EndpointTemplate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class EndpointTemplateBenchmark {
+
+    /**
+     * Endpoints as written in the feature files.
+     */
+    @Param({"users/{{user_id}}/playlists", "playlists/{playlist_id_from_post_request}", "users/{{user_id}}/playlists/{playlist_id_from_post_request}/tracks"})
+    public String endpoint;
+
+    /**
+     * The config used to resolve '{{key}}' placeholders.
+     */
+    private ConfigLoader configLoader;
+
+    /**
+     * The data store used to resolve '{key}' placeholders.
+     */
+    private DataStoreManager dataStoreManager;
+
+    /**
+     * Loads the config and stores the variables referenced by the endpoints.
+     */
+    @Setup
+    public void setUp() {
+        configLoader = ConfigLoader.getInstance();
+        dataStoreManager = new DataStoreManager();
+        dataStoreManager.storeStringValue("playlist_id_from_post_request", "3cEYpjA9oz9GiPac4AsH4n");
+    }
+
+    /**
+     * Resolves the endpoint the way the request steps did before, with two passes over the string.
+     *
+     * @return the resolved endpoint
+     */
+    @Benchmark
+    public String twoPassResolution() {
+        String resolvedEndpointWithConfigFile = configLoader.replacePlaceholdersWithProperties(endpoint);
+        return dataStoreManager.resolvePlaceholdersWithData(resolvedEndpointWithConfigFile);
+    }
+
+    /**
+     * Resolves the endpoint with the cached, compiled template.
+     *
+     * @return the resolved endpoint
+     */
+    @Benchmark
+    public String compiledTemplate() {
+        return EndpointTemplate.compile(endpoint).render(configLoader, dataStoreManager);
+    }
+}
@@ -0,0 +1,117 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.DataStoreManager;
+import com.spotify.codeless.support.RequestBodyManager;
+import com.spotify.codeless.support.VariableScope;
+import commons.restbase.RequestBase;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the share of logging in the step hot paths, by running them with the root logger at DEBUG, INFO and WARN.
+ * The difference between INFO and WARN is the cost of the messages logged by default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class LoggingBenchmark {
+
+    /**
+     * The JSON template used by the feature files.
+     */
+    private static final String JSON_FILE_PATH = "src/test/resources/test-data/CreatePlaylists.json";
+
+    /**
+     * Level of the root logger.
+     */
+    @Param({"DEBUG", "INFO", "WARN"})
+    public String level;
+
+    /**
+     * The request body manager of the 'With request body' step.
+     */
+    private RequestBodyManager requestBodyManager;
+
+    /**
+     * The data store of the scenario.
+     */
+    private DataStoreManager dataStoreManager;
+
+    /**
+     * The request base of the scenario.
+     */
+    private RequestBase requestBase;
+
+    /**
+     * The DataTable of the 'With request body' step.
+     */
+    private List<List<String>> table;
+
+    /**
+     * Sets the level of the root logger and creates the objects used by the steps.
+     */
+    @Setup
+    public void setUp() {
+        LogManager.getRootLogger().setLevel(Level.toLevel(level));
+        requestBodyManager = new RequestBodyManager();
+        dataStoreManager = new DataStoreManager();
+        requestBase = new RequestBase("http://localhost:8089/v1");
+        table = Arrays.asList(
+                Arrays.asList("name", "description", "public"),
+                Arrays.asList("New Playlist", "New playlist description", "false"));
+    }
+
+    /**
+     * Builds a request body as the 'With request body' step does.
+     *
+     * @return the request body
+     */
+    @Benchmark
+    public Object requestBodyStep() {
+        Object document = requestBodyManager.readJsonFromFile(JSON_FILE_PATH);
+        requestBodyManager.updateJsonWithDataTable(document, table);
+        return document;
+    }
+
+    /**
+     * Stores a variable and resolves and asserts it, as the 'Store response body value in variable' and request steps do.
+     *
+     * @return the expected value
+     */
+    @Benchmark
+    public Object dataStoreStep() {
+        dataStoreManager.storeValue("playlist_id_from_post_request", "3cEYpjA9oz9GiPac4AsH4n", VariableScope.SCENARIO);
+        dataStoreManager.resolvePlaceholdersWithData("playlists/{playlist_id_from_post_request}");
+        return dataStoreManager.convertOrRetrieveExpectedValue("{playlist_id_from_post_request}", "String");
+    }
+
+    /**
+     * Gets and resets the request specification, as every request step does.
+     *
+     * @return the request specification
+     */
+    @Benchmark
+    public Object requestSpecification() {
+        Object specification = requestBase.getRequestSpecification();
+        requestBase.resetRequestSpecification();
+        return specification;
+    }
+}
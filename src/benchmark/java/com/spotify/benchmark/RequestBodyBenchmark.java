@@ -0,0 +1,95 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.RequestBodyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request body hot path of the 'With request body' step: reading the JSON template and applying the DataTable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class RequestBodyBenchmark {
+
+    /**
+     * The JSON template used by the feature files.
+     */
+    private static final String JSON_FILE_PATH = "src/test/resources/test-data/CreatePlaylists.json";
+
+    /**
+     * The request body manager under test.
+     */
+    private RequestBodyManager requestBodyManager;
+
+    /**
+     * The DataTable of the 'With request body' step.
+     */
+    private List<List<String>> table;
+
+    /**
+     * A parsed JSON document, updated again and again with the same DataTable.
+     */
+    private Object document;
+
+    /**
+     * Creates the request body manager, the DataTable and the JSON document.
+     */
+    @Setup
+    public void setUp() {
+        requestBodyManager = new RequestBodyManager();
+        table = Arrays.asList(
+                Arrays.asList("name", "description", "public"),
+                Arrays.asList("New Playlist", "New playlist description", "false"));
+        document = requestBodyManager.readJsonFromFile(JSON_FILE_PATH);
+    }
+
+    /**
+     * Reads and parses the JSON template.
+     *
+     * @return the parsed JSON document
+     */
+    @Benchmark
+    public Object readJsonFromFile() {
+        return requestBodyManager.readJsonFromFile(JSON_FILE_PATH);
+    }
+
+    /**
+     * Applies the DataTable to an already parsed JSON document.
+     *
+     * @return the updated JSON document
+     */
+    @Benchmark
+    public Object updateJsonWithDataTable() {
+        requestBodyManager.updateJsonWithDataTable(document, table);
+        return document;
+    }
+
+    /**
+     * Runs the complete step: reads the JSON template and applies the DataTable.
+     *
+     * @return the updated JSON document
+     */
+    @Benchmark
+    public Object withRequestBodyStep() {
+        requestBodyManager.validateTableSize(table);
+        Object jsonObj = requestBodyManager.readJsonFromFile(JSON_FILE_PATH);
+        requestBodyManager.updateJsonWithDataTable(jsonObj, table);
+        return jsonObj;
+    }
+}
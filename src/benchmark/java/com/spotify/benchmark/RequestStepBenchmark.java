@@ -0,0 +1,148 @@
+package com.spotify.benchmark;
+
+import com.spotify.stub.SpotifyStubServer;
+import commons.restbase.HttpConnectionPool;
+import commons.restbase.RequestBase;
+import commons.restbase.ResponseBase;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete request steps (headers, body, request, response) against the local Spotify stub server,
+ * with and without the shared connection pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class RequestStepBenchmark {
+
+    /**
+     * Whether the requests share the pooled, keep-alive HTTP client.
+     */
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    /**
+     * The local Spotify stub server.
+     */
+    private SpotifyStubServer stubServer;
+
+    /**
+     * The request base shared by all benchmark threads, each thread has its own request specification.
+     */
+    private RequestBase requestBase;
+
+    /**
+     * The response base used to validate the responses.
+     */
+    private ResponseBase responseBase;
+
+    /**
+     * The ID of a playlist created on the stub server.
+     */
+    private String playlistId;
+
+    /**
+     * Starts the stub server and creates the playlist read by the GET benchmark.
+     * Console output of the request and response logging is discarded, file logging is kept.
+     *
+     * @throws IOException if the stub server cannot be started
+     */
+    @Setup
+    public void setUp() throws IOException {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        stubServer = new SpotifyStubServer(0).start();
+        if (pooled) {
+            RequestBase.setConnectionPool(new HttpConnectionPool(64, 64, 30000, 60000, 5000, 30000));
+        }
+        requestBase = new RequestBase(stubServer.getApiBaseUri());
+        responseBase = new ResponseBase();
+        playlistId = createPlaylist().path("id");
+    }
+
+    /**
+     * Stops the stub server and the connection pool.
+     */
+    @TearDown
+    public void tearDown() {
+        if (RequestBase.getConnectionPool() != null) {
+            RequestBase.getConnectionPool().shutdown();
+        }
+        stubServer.stop();
+    }
+
+    /**
+     * Creates a playlist, as the POST request step does.
+     *
+     * @return the response
+     */
+    @Benchmark
+    public Response createPlaylist() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "New Playlist");
+        body.put("description", "New playlist description");
+        body.put("public", false);
+        requestBase.resetRequestSpecification();
+        requestBase.getRequestSpecification().headers(headers());
+        requestBase.getRequestSpecification().body(body);
+        return requestBase.getRequestSpecification().post("users/31ddawwwfblnhu5okxeb4geahrmm/playlists").
+                then().spec(responseBase.getResponseSpecification()).extract().response();
+    }
+
+    /**
+     * Reads a playlist, as the GET request step does.
+     *
+     * @return the response
+     */
+    @Benchmark
+    public Response getPlaylist() {
+        requestBase.resetRequestSpecification();
+        requestBase.getRequestSpecification().headers(headers());
+        return requestBase.getRequestSpecification().get("playlists/" + playlistId).
+                then().spec(responseBase.getResponseSpecification()).extract().response();
+    }
+
+    /**
+     * Returns the headers of the 'With request headers' step.
+     *
+     * @return the headers
+     */
+    private static Map<String, String> headers() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("Authorization", "Bearer stub-benchmark");
+        return headers;
+    }
+}
@@ -0,0 +1,66 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.ValueCoercion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the conversion of DataTable cells by ValueCoercion with the regular expressions used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ValueCoercionBenchmark {
+
+    /**
+     * DataTable cells: a text, a boolean, whole numbers of each size and a decimal number.
+     */
+    @Param({"New Playlist", "false", "201", "3000000000", "123456789012345678901234567890", "12.5"})
+    public String value;
+
+    /**
+     * Converts the cell with the scanner.
+     *
+     * @return the converted value
+     */
+    @Benchmark
+    public Object coerce() {
+        return ValueCoercion.coerce(value);
+    }
+
+    /**
+     * Converts the cell with the regular expressions used before, as a baseline. Whole numbers beyond int fail, as they did before.
+     *
+     * @return the converted value, or the exception for a number that does not fit an int
+     */
+    @Benchmark
+    public Object coerceWithRegex() {
+        try {
+            if ("true".equals(value) || "false".equals(value)) {
+                return Boolean.parseBoolean(value);
+            } else if (value.matches("\\d+")) {
+                return Integer.parseInt(value);
+            } else if (value.matches("\\d+\\.\\d+")) {
+                return Double.parseDouble(value);
+            } else if (value.equals("null")) {
+                return null;
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            return e;
+        }
+    }
+}
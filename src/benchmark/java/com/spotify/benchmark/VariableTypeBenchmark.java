@@ -0,0 +1,44 @@
+package com.spotify.benchmark;
+
+import com.spotify.codeless.support.VariableType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of the declared types of expected values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class VariableTypeBenchmark {
+
+    /**
+     * Declared types as written in the 'variableType' column: a spelling found in the lookup table, and a mixed-case
+     * spelling that falls back to the case-insensitive scan.
+     */
+    @Param({"Integer", "iNtEgEr"})
+    public String variableType;
+
+    /**
+     * Looks up the declared type of an expected value.
+     *
+     * @return the variable type
+     */
+    @Benchmark
+    public VariableType lookupVariableType() {
+        return VariableType.lookup(variableType);
+    }
+}
@@ -0,0 +1,79 @@
+package commons.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for executors starting a new virtual thread for each task.
+ * The project is compiled for Java 8, so virtual threads are looked up at runtime; on a JVM without virtual threads
+ * (before Java 21), or when virtual threads are not requested, a cached pool of daemon platform threads is used instead.
+ * HttpClient 4 blocks inside synchronized sections, e.g. while waiting for a pooled connection. On Java 21 to 23 this pins
+ * the carrier thread of a virtual thread, so request-heavy tasks cannot run on more virtual threads than there are carriers.
+ */
+public final class VirtualThreadExecutors {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadExecutors.class);
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private VirtualThreadExecutors() {}
+
+    /**
+     * Method to check whether the running JVM supports virtual threads.
+     * @return true if virtual threads are available.
+     */
+    public static boolean isAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Method to create an executor starting a new virtual thread for each task.
+     * @param fallbackThreadName Name prefix of the platform threads used if virtual threads are not used.
+     * @param virtualThreads Whether to use virtual threads when they are available.
+     * @return Executor running each task on its own virtual thread, or on a cached platform thread.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String fallbackThreadName, boolean virtualThreads) {
+        if (!virtualThreads) {
+            LOGGER.info("Virtual threads are disabled, using platform threads");
+            return newCachedDaemonThreadPool(fallbackThreadName);
+        }
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            LOGGER.info("Creating virtual thread per task executor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+            LOGGER.info("Virtual threads are not available on Java {}, using platform threads", System.getProperty("java.version"));
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Failed to create virtual thread per task executor, using platform threads", e);
+        }
+        return newCachedDaemonThreadPool(fallbackThreadName);
+    }
+
+    /**
+     * Method to create a cached pool of daemon platform threads.
+     * @param threadName Name prefix of the threads.
+     * @return Executor running each task on a cached platform thread.
+     */
+    private static ExecutorService newCachedDaemonThreadPool(String threadName) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
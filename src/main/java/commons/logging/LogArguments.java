@@ -0,0 +1,50 @@
+package commons.logging;
+
+import java.util.function.Supplier;
+
+/**
+ * Factory for log arguments rendered only when the message is logged.
+ * SLF4J calls toString on the arguments of a parameterized message only if its level is enabled,
+ * so wrapping an expensive value, like a whole JSON document, costs nothing when the level is disabled.
+ */
+public final class LogArguments {
+
+    /**
+     * Maximum number of characters of an abbreviated argument.
+     */
+    private static final int MAX_LENGTH = 500;
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private LogArguments() {}
+
+    /**
+     * Method to create an argument computed when the message is logged.
+     * @param supplier Function computing the value of the argument.
+     * @return Argument whose toString returns the computed value.
+     */
+    public static Object lazy(Supplier<?> supplier) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return String.valueOf(supplier.get());
+            }
+        };
+    }
+
+    /**
+     * Method to create an argument rendering the value cut to at most 500 characters when the message is logged, e.g. a JSON document.
+     * @param value Value of the argument.
+     * @return Argument whose toString returns the abbreviated value.
+     */
+    public static Object abbreviate(Object value) {
+        return new Object() {
+            @Override
+            public String toString() {
+                String text = String.valueOf(value);
+                return text.length() <= MAX_LENGTH ? text : text.substring(0, MAX_LENGTH) + "... (" + text.length() + " characters)";
+            }
+        };
+    }
+}
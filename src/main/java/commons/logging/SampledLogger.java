@@ -0,0 +1,70 @@
+package commons.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger writing one out of every N messages, for messages logged for every request or scenario of a load run.
+ * The level is checked first, so a disabled level costs neither the sampling counter nor the formatting of the message.
+ * The sampling rate is passed with each message, so a rate read from a reloaded configuration applies to the next message.
+ */
+public final class SampledLogger {
+
+    /**
+     * Logger the sampled messages are written to.
+     */
+    private final Logger logger;
+
+    /**
+     * Number of messages of an enabled level so far.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Constructor to initialize the logger.
+     * @param logger Logger the sampled messages are written to.
+     */
+    public SampledLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Method to log a message at INFO level if it is sampled.
+     * @param rate Number of messages per logged message, 1 to log all messages.
+     * @param format Parameterized message, with '{}' for each argument.
+     * @param arguments Arguments of the message.
+     * @throws IllegalArgumentException If the rate is less than 1.
+     */
+    public void info(long rate, String format, Object... arguments) {
+        if (logger.isInfoEnabled() && isSampled(rate)) {
+            logger.info(format, arguments);
+        }
+    }
+
+    /**
+     * Method to log a message at DEBUG level if it is sampled.
+     * @param rate Number of messages per logged message, 1 to log all messages.
+     * @param format Parameterized message, with '{}' for each argument.
+     * @param arguments Arguments of the message.
+     * @throws IllegalArgumentException If the rate is less than 1.
+     */
+    public void debug(long rate, String format, Object... arguments) {
+        if (logger.isDebugEnabled() && isSampled(rate)) {
+            logger.debug(format, arguments);
+        }
+    }
+
+    /**
+     * Method to check whether the current message is logged.
+     * @param rate Number of messages per logged message, 1 to log all messages.
+     * @return true for the first message and then for every N-th message.
+     * @throws IllegalArgumentException If the rate is less than 1.
+     */
+    private boolean isSampled(long rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Invalid sampling rate: " + rate);
+        }
+        return rate == 1 || count.getAndIncrement() % rate == 0;
+    }
+}
@@ -0,0 +1,275 @@
+package commons.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class holding the latency histograms of the run: the connect time, time to first byte and total duration of the requests,
+ * keyed by HTTP method and endpoint template (e.g. 'POST users/{user_id}/playlists'), and the durations of the steps,
+ * keyed by step pattern. The percentiles are exported as JSON and Prometheus text at the end of the run.
+ */
+public final class LatencyMetrics {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyMetrics.class);
+
+    /**
+     * Percentiles exported for each histogram.
+     */
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    /**
+     * Names of the exported percentiles in the JSON export.
+     */
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p95", "p99", "p999"};
+
+    /**
+     * Quantile labels of the exported percentiles in the Prometheus export.
+     */
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.95", "0.99", "0.999"};
+
+    /**
+     * Time until the connection of the requests was ready, including the wait for a pooled connection.
+     */
+    private static final LatencyRegistry CONNECT = new LatencyRegistry();
+
+    /**
+     * Time until the response head of the requests arrived.
+     */
+    private static final LatencyRegistry TIME_TO_FIRST_BYTE = new LatencyRegistry();
+
+    /**
+     * Total duration of the requests, until the response body was read.
+     */
+    private static final LatencyRegistry TOTAL = new LatencyRegistry();
+
+    /**
+     * Duration of the steps.
+     */
+    private static final LatencyRegistry STEPS = new LatencyRegistry();
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private LatencyMetrics() {}
+
+    /**
+     * Method to record the timings of a request. Timings that were not measured are passed as negative values and not recorded.
+     * @param method HTTP method of the request.
+     * @param endpoint Endpoint template of the request, without the placeholders resolved.
+     * @param connectNanos Time until the connection was ready in nanoseconds.
+     * @param firstByteNanos Time until the response head arrived in nanoseconds.
+     * @param totalNanos Total duration of the request in nanoseconds.
+     */
+    public static void recordRequest(String method, String endpoint, long connectNanos, long firstByteNanos, long totalNanos) {
+        String name = method + " " + endpoint;
+        if (connectNanos >= 0) {
+            CONNECT.record(name, connectNanos);
+        }
+        if (firstByteNanos >= 0) {
+            TIME_TO_FIRST_BYTE.record(name, firstByteNanos);
+        }
+        TOTAL.record(name, totalNanos);
+    }
+
+    /**
+     * Method to record the duration of a step.
+     * @param pattern Pattern of the step definition.
+     * @param nanos Duration of the step in nanoseconds.
+     */
+    public static void recordStep(String pattern, long nanos) {
+        STEPS.record(pattern, nanos);
+    }
+
+    /**
+     * Getter method for the total durations of the requests.
+     * @return Histograms keyed by HTTP method and endpoint template.
+     */
+    public static LatencyRegistry getRequestLatencies() {
+        return TOTAL;
+    }
+
+    /**
+     * Getter method for the durations of the steps.
+     * @return Histograms keyed by step pattern.
+     */
+    public static LatencyRegistry getStepLatencies() {
+        return STEPS;
+    }
+
+    /**
+     * Method to remove all recorded timings.
+     */
+    public static void reset() {
+        CONNECT.clear();
+        TIME_TO_FIRST_BYTE.clear();
+        TOTAL.clear();
+        STEPS.clear();
+    }
+
+    /**
+     * Method to build the latency statistics of a histogram.
+     * @param histogram Histogram in microseconds.
+     * @return Count, min, mean, percentiles and max, in milliseconds.
+     */
+    public static Map<String, Object> toStatistics(Histogram histogram) {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", histogram.getTotalCount());
+        statistics.put("min", toMillis(histogram.getMinValue()));
+        statistics.put("mean", toMillis(histogram.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            statistics.put(PERCENTILE_NAMES[i], toMillis(histogram.getValueAtPercentile(PERCENTILES[i])));
+        }
+        statistics.put("max", toMillis(histogram.getMaxValue()));
+        return statistics;
+    }
+
+    /**
+     * Method to write the percentiles of all histograms as JSON.
+     * @param file File to write to.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeJson(Path file) throws IOException {
+        Map<String, Object> requests = new LinkedHashMap<>();
+        Map<String, Histogram> connect = CONNECT.snapshot();
+        Map<String, Histogram> firstByte = TIME_TO_FIRST_BYTE.snapshot();
+        for (Map.Entry<String, Histogram> entry : TOTAL.snapshot().entrySet()) {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            if (connect.containsKey(entry.getKey())) {
+                timings.put("connect", toStatistics(connect.get(entry.getKey())));
+            }
+            if (firstByte.containsKey(entry.getKey())) {
+                timings.put("timeToFirstByte", toStatistics(firstByte.get(entry.getKey())));
+            }
+            timings.put("total", toStatistics(entry.getValue()));
+            requests.put(entry.getKey(), timings);
+        }
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> entry : STEPS.snapshot().entrySet()) {
+            steps.put(entry.getKey(), toStatistics(entry.getValue()));
+        }
+        Map<String, Object> export = new LinkedHashMap<>();
+        export.put("unit", "ms");
+        export.put("requests", requests);
+        export.put("steps", steps);
+
+        createParentDirectories(file);
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), export);
+        LOGGER.info("Latency metrics written to: '{}'", file);
+    }
+
+    /**
+     * Method to write the percentiles of all histograms in the Prometheus text format, as summaries in seconds.
+     * @param file File to write to.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writePrometheus(Path file) throws IOException {
+        createParentDirectories(file);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeRequestSummary(writer, "rest_request_connect_seconds", "Time until the connection of the request was ready.", CONNECT);
+            writeRequestSummary(writer, "rest_request_first_byte_seconds", "Time until the response head arrived.", TIME_TO_FIRST_BYTE);
+            writeRequestSummary(writer, "rest_request_duration_seconds", "Total duration of the request.", TOTAL);
+            writeSummaryHeader(writer, "cucumber_step_duration_seconds", "Duration of the step.");
+            for (Map.Entry<String, Histogram> entry : STEPS.snapshot().entrySet()) {
+                writeSummary(writer, "cucumber_step_duration_seconds", "step=\"" + escapeLabel(entry.getKey()) + "\"", entry.getValue());
+            }
+        }
+        LOGGER.info("Latency metrics written to: '{}'", file);
+    }
+
+    /**
+     * Method to write a summary of request histograms keyed by HTTP method and endpoint template.
+     * @param writer Writer of the Prometheus text.
+     * @param metric Name of the metric.
+     * @param help Description of the metric.
+     * @param registry Histograms of the metric.
+     * @throws IOException if the text cannot be written.
+     */
+    private static void writeRequestSummary(Writer writer, String metric, String help, LatencyRegistry registry) throws IOException {
+        writeSummaryHeader(writer, metric, help);
+        for (Map.Entry<String, Histogram> entry : registry.snapshot().entrySet()) {
+            int separator = entry.getKey().indexOf(' ');
+            String labels = "method=\"" + escapeLabel(entry.getKey().substring(0, separator))
+                    + "\",endpoint=\"" + escapeLabel(entry.getKey().substring(separator + 1)) + "\"";
+            writeSummary(writer, metric, labels, entry.getValue());
+        }
+    }
+
+    /**
+     * Method to write the HELP and TYPE lines of a summary.
+     * @param writer Writer of the Prometheus text.
+     * @param metric Name of the metric.
+     * @param help Description of the metric.
+     * @throws IOException if the text cannot be written.
+     */
+    private static void writeSummaryHeader(Writer writer, String metric, String help) throws IOException {
+        writer.write("# HELP " + metric + " " + help + "\n");
+        writer.write("# TYPE " + metric + " summary\n");
+    }
+
+    /**
+     * Method to write the quantiles, sum and count of a histogram.
+     * @param writer Writer of the Prometheus text.
+     * @param metric Name of the metric.
+     * @param labels Labels of the histogram, without braces.
+     * @param histogram Histogram in microseconds.
+     * @throws IOException if the text cannot be written.
+     */
+    private static void writeSummary(Writer writer, String metric, String labels, Histogram histogram) throws IOException {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            writer.write(metric + "{" + labels + ",quantile=\"" + QUANTILES[i] + "\"} " + toSeconds(histogram.getValueAtPercentile(PERCENTILES[i])) + "\n");
+        }
+        writer.write(metric + "_sum{" + labels + "} " + toSeconds(histogram.getMean() * histogram.getTotalCount()) + "\n");
+        writer.write(metric + "_count{" + labels + "} " + histogram.getTotalCount() + "\n");
+    }
+
+    /**
+     * Method to escape a Prometheus label value.
+     * @param value Label value.
+     * @return Value with backslashes, double quotes and line feeds escaped.
+     */
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Method to create the parent directories of a file.
+     * @param file File to be written.
+     * @throws IOException if the directories cannot be created.
+     */
+    private static void createParentDirectories(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+    }
+
+    /**
+     * Method to convert microseconds to milliseconds.
+     * @param micros Value in microseconds.
+     * @return Value in milliseconds, rounded to 3 decimals.
+     */
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    /**
+     * Method to convert microseconds to seconds.
+     * @param micros Value in microseconds.
+     * @return Value in seconds.
+     */
+    private static double toSeconds(double micros) {
+        return micros / 1_000_000.0;
+    }
+}
@@ -0,0 +1,93 @@
+package commons.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of latency histograms keyed by name, e.g. 'GET playlists/{playlist_id}'.
+ * Latencies are recorded in microseconds into HdrHistograms, which record without locking, so any number of threads can
+ * record into the same histogram while it is being read.
+ */
+public class LatencyRegistry {
+
+    /**
+     * Highest latency recorded in microseconds, longer latencies are recorded as this value.
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    /**
+     * Number of significant decimal digits kept for each recorded value.
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * The histograms, keyed by name.
+     */
+    private final ConcurrentMap<String, ConcurrentHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Method to record a latency.
+     * @param name Name of the histogram.
+     * @param nanos Latency in nanoseconds.
+     */
+    public void record(String name, long nanos) {
+        getOrCreate(name).recordValue(toMicros(nanos));
+    }
+
+    /**
+     * Method to get a copy of a histogram.
+     * @param name Name of the histogram.
+     * @return Copy of the histogram in microseconds, or null if nothing has been recorded under the name.
+     */
+    public Histogram getHistogram(String name) {
+        ConcurrentHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram.copy() : null;
+    }
+
+    /**
+     * Method to get a copy of all histograms.
+     * @return Copies of the histograms in microseconds, sorted by name.
+     */
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> snapshot = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentHistogram> entry : histograms.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().copy());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Method to remove all histograms.
+     */
+    public void clear() {
+        histograms.clear();
+    }
+
+    /**
+     * Method to get the histogram of a name, creating it on first use.
+     * @param name Name of the histogram.
+     * @return The histogram.
+     */
+    private ConcurrentHistogram getOrCreate(String name) {
+        ConcurrentHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, key -> new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+        }
+        return histogram;
+    }
+
+    /**
+     * Method to convert a latency to microseconds within the trackable range.
+     * @param nanos Latency in nanoseconds.
+     * @return Latency in microseconds, at least 1 and at most the highest trackable value.
+     */
+    private static long toMicros(long nanos) {
+        return Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+}
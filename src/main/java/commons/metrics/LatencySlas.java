@@ -0,0 +1,98 @@
+package commons.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class holding the latency SLAs declared by the scenarios, e.g. 'p95 of POST users/{user_id}/playlists below 500 ms'.
+ * The SLAs are evaluated once at the end of the run against the request latency histograms of LatencyMetrics,
+ * as the percentiles are only meaningful over all requests of the run.
+ */
+public final class LatencySlas {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencySlas.class);
+
+    /**
+     * Maximum latency in milliseconds of each SLA, keyed by percentile and histogram name, e.g. 'p95 POST users/{user_id}/playlists'.
+     */
+    private static final ConcurrentMap<String, Long> slas = new ConcurrentHashMap<>();
+
+    /**
+     * Percentile of each SLA, keyed like the maximum latencies.
+     */
+    private static final ConcurrentMap<String, Double> percentiles = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private LatencySlas() {}
+
+    /**
+     * Method to declare an SLA. When the same SLA is declared with different limits, e.g. by several scenarios, the lowest limit applies.
+     * @param percentile Percentile of the request latencies, e.g. 95.
+     * @param method HTTP method of the requests.
+     * @param endpoint Endpoint template of the requests, as written in the feature file.
+     * @param maxMillis Maximum latency of the percentile in milliseconds.
+     */
+    public static void register(double percentile, String method, String endpoint, long maxMillis) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        String key = "p" + formatPercentile(percentile) + " " + method + " " + endpoint;
+        percentiles.put(key, percentile);
+        slas.merge(key, maxMillis, Math::min);
+    }
+
+    /**
+     * Method to evaluate all declared SLAs against the recorded request latencies.
+     * An SLA of an endpoint without any recorded request is violated.
+     * @return Description of each violated SLA, empty if all SLAs are met.
+     */
+    public static List<String> evaluate() {
+        List<String> violations = new ArrayList<>();
+        Map<String, Long> sortedSlas = new TreeMap<>(slas);
+        for (Map.Entry<String, Long> entry : sortedSlas.entrySet()) {
+            String key = entry.getKey();
+            String name = key.substring(key.indexOf(' ') + 1);
+            Histogram histogram = LatencyMetrics.getRequestLatencies().getHistogram(name);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                violations.add(key + ": no requests recorded");
+                continue;
+            }
+            double actualMillis = histogram.getValueAtPercentile(percentiles.get(key)) / 1000.0;
+            LOGGER.info("Latency SLA {} below {} ms: {} ms over {} requests", key, entry.getValue(), actualMillis, histogram.getTotalCount());
+            if (actualMillis >= entry.getValue()) {
+                violations.add(key + ": " + actualMillis + " ms over " + histogram.getTotalCount() + " requests, expected below " + entry.getValue() + " ms");
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Method to remove all declared SLAs.
+     */
+    public static void reset() {
+        slas.clear();
+        percentiles.clear();
+    }
+
+    /**
+     * Method to format a percentile without a trailing '.0', e.g. 95 or 99.9.
+     * @param percentile Percentile.
+     * @return Formatted percentile.
+     */
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,89 @@
+package commons.metrics;
+
+/**
+ * Timer of the request sent by the current thread, measuring the connect time, the time to first byte and the total duration.
+ * RestAssured sends requests on the calling thread, so the interceptors of the HTTP client mark the phases of the timer of that thread.
+ * Requests sent while no timer is running on the thread, such as token requests, are not measured.
+ */
+public final class RequestTimer {
+
+    /**
+     * The timer of each thread, reused for all its requests.
+     */
+    private static final ThreadLocal<RequestTimer> CURRENT = ThreadLocal.withInitial(RequestTimer::new);
+
+    /**
+     * Whether a request is being measured.
+     */
+    private boolean running;
+
+    /**
+     * Time the request started.
+     */
+    private long startNanos;
+
+    /**
+     * Time between the start and the connection being ready, or -1 if not reached yet.
+     */
+    private long connectNanos;
+
+    /**
+     * Time between the start and the response head arriving, or -1 if not reached yet.
+     */
+    private long firstByteNanos;
+
+    /**
+     * Private constructor, timers are obtained with start().
+     */
+    private RequestTimer() {}
+
+    /**
+     * Method to start measuring a request sent by the current thread.
+     * @return The timer of the current thread.
+     */
+    public static RequestTimer start() {
+        RequestTimer timer = CURRENT.get();
+        timer.running = true;
+        timer.connectNanos = -1;
+        timer.firstByteNanos = -1;
+        timer.startNanos = System.nanoTime();
+        return timer;
+    }
+
+    /**
+     * Method to add the interceptors marking the connect time and the time to first byte to an HTTP client.
+     * Request interceptors run once the connection is ready, response interceptors once the response head has arrived.
+     * @param httpClient HTTP client to be instrumented.
+     * @param <T> Type of the HTTP client.
+     * @return The given HTTP client.
+     */
+    @SuppressWarnings("deprecation") // RestAssured 5 still requires HttpClient 4's AbstractHttpClient
+    public static <T extends org.apache.http.impl.client.AbstractHttpClient> T instrument(T httpClient) {
+        httpClient.addRequestInterceptor((request, context) -> {
+            RequestTimer timer = CURRENT.get();
+            if (timer.running && timer.connectNanos < 0) {
+                timer.connectNanos = System.nanoTime() - timer.startNanos;
+            }
+        });
+        httpClient.addResponseInterceptor((response, context) -> {
+            RequestTimer timer = CURRENT.get();
+            if (timer.running && timer.firstByteNanos < 0) {
+                timer.firstByteNanos = System.nanoTime() - timer.startNanos;
+            }
+        });
+        return httpClient;
+    }
+
+    /**
+     * Method to stop measuring and record the timings of the request.
+     * @param method HTTP method of the request.
+     * @param endpoint Endpoint template of the request, without the placeholders resolved.
+     * @return Total duration of the request in nanoseconds.
+     */
+    public long stop(String method, String endpoint) {
+        long totalNanos = System.nanoTime() - startNanos;
+        running = false;
+        LatencyMetrics.recordRequest(method, endpoint, connectNanos, firstByteNanos, totalNanos);
+        return totalNanos;
+    }
+}
@@ -3,17 +3,43 @@ package commons.properties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Helper class for reading properties files.
+ * The properties are merged from layers, each overriding the previous ones: the properties files in the given order,
+ * then the system properties named after the properties of the files, then the environment variables named after the properties of the files
+ * (e.g. API_BASE_URI for api.base.uri). Other system properties and environment variables, e.g. the java.* system properties, are ignored.
+ * The merged properties are held in an immutable snapshot that is read without locks and replaced atomically when the files are reloaded,
+ * either explicitly or by a file watcher started with {@link #startWatching()}. A reloaded snapshot missing a property loaded at construction,
+ * e.g. read from a file that is still being written, is discarded.
  *
  * @author Jaspal Aujla
  */
-public class PropertiesManager {
+public class PropertiesManager implements Closeable {
 
     /**
      * Logger object for logging purposes. It's declared as final because it's a constant.
@@ -21,18 +47,57 @@ public class PropertiesManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertiesManager.class);
 
     /**
-     * Properties object to hold the properties loaded from a properties file.
+     * Time in milliseconds without further changes of the watched files after which the files are reloaded, so a file is reloaded once it is written.
      */
-    private Properties properties;
+    private static final long RELOAD_DEBOUNCE_MILLIS = 500;
 
     /**
-     * Constructs a new PropertiesManager instance with the specified file path.
+     * The paths of the properties files, from the base file to the most specific overlay.
+     */
+    private final List<Path> paths = new ArrayList<>();
+
+    /**
+     * The snapshot of the properties loaded last from the properties file.
+     */
+    private volatile PropertiesSnapshot snapshot;
+
+    /**
+     * The names of the properties loaded at construction, which a reloaded snapshot must contain to replace the current one.
+     */
+    private final Set<String> requiredKeys;
+
+    /**
+     * The watch service notifying changes of the properties file, or null if the file is not watched.
+     */
+    private WatchService watchService;
+
+    /**
+     * Constructs a new PropertiesManager instance with the specified file paths.
      *
-     * @param filePath the path of the properties file to load
+     * @param filePaths the paths of the properties files to load, each file overriding the previous ones
+     * @throws IllegalArgumentException if a file does not exist, or a value references a property that is not specified
+     * @throws UncheckedIOException     if a file cannot be read
      */
-    public PropertiesManager(String filePath) {
-        LOGGER.info("Constructing PropertiesManager with file path: '{}'", filePath);
-        loadPropertiesFile(filePath);
+    public PropertiesManager(String... filePaths) {
+        LOGGER.info("Constructing PropertiesManager with file paths: '{}'", Arrays.toString(filePaths));
+        for (String filePath : filePaths) {
+            Path path = Paths.get(filePath).toAbsolutePath();
+            if (!Files.exists(path)) {
+                throw new IllegalArgumentException("Properties file not found: " + filePath);
+            }
+            paths.add(path);
+        }
+        snapshot = loadPropertiesFiles();
+        requiredKeys = Collections.unmodifiableSet(new HashSet<>(snapshot.asMap().keySet()));
+    }
+
+    /**
+     * Returns the snapshot of the properties, to read several values consistently while the file may be reloaded.
+     *
+     * @return the current snapshot
+     */
+    public PropertiesSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -42,21 +107,38 @@ public class PropertiesManager {
      * @return the string value of the property
      */
     public String getProperty(String key) {
-        checkPropertiesInitialized();
-        LOGGER.info("Returning Property of '" + key + "' as string");
-        return properties.getProperty(key);
+        return snapshot.get(key);
     }
 
     /**
      * Returns the value of the specified property as a boolean.
      *
      * @param key the name of the property to retrieve
-     * @return the boolean value of the property
+     * @return the boolean value of the property, false if the property is not specified
+     * @throws RuntimeException if the property value is neither 'true' nor 'false'
      */
     public boolean getPropertyAsBoolean(String key) {
-        checkPropertiesInitialized();
-        LOGGER.info("Returning Property of '" + key + "' as boolean");
-        return Boolean.parseBoolean(properties.getProperty(key));
+        return getPropertyAsBoolean(key, false);
+    }
+
+    /**
+     * Returns the value of the specified property as a boolean, or the given default if the property is not specified.
+     *
+     * @param key          the name of the property to retrieve
+     * @param defaultValue the value returned if the property is not specified
+     * @return the boolean value of the property
+     * @throws RuntimeException if the property value is neither 'true' nor 'false'
+     */
+    public boolean getPropertyAsBoolean(String key, boolean defaultValue) {
+        PropertiesSnapshot properties = snapshot;
+        Boolean value = properties.getBoolean(key);
+        if (value != null) {
+            return value;
+        }
+        if (properties.get(key) == null) {
+            return defaultValue;
+        }
+        throw conversionFailure(key, "boolean", properties.get(key));
     }
 
     /**
@@ -67,16 +149,24 @@ public class PropertiesManager {
      * @throws RuntimeException if the property value cannot be converted to an integer
      */
     public int getPropertyAsInt(String key) {
-        checkPropertiesInitialized();
-        LOGGER.info("Returning Property of '" + key + "' as int");
-        String value = properties.getProperty(key);
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            String errorMessage = "Failed to convert property '" + key + "' to int: " + value;
-            LOGGER.error(errorMessage, e);
-            throw new RuntimeException(errorMessage + e);
+        PropertiesSnapshot properties = snapshot;
+        Long value = properties.getLong(key);
+        if (value == null || value != value.intValue()) {
+            throw conversionFailure(key, "int", properties.get(key));
         }
+        return value.intValue();
+    }
+
+    /**
+     * Returns the value of the specified property as an integer, or the given default if the property is not specified.
+     *
+     * @param key          the name of the property to retrieve
+     * @param defaultValue the value returned if the property is not specified
+     * @return the integer value of the property
+     * @throws RuntimeException if the property value cannot be converted to an integer
+     */
+    public int getPropertyAsInt(String key, int defaultValue) {
+        return snapshot.get(key) != null ? getPropertyAsInt(key) : defaultValue;
     }
 
     /**
@@ -87,47 +177,223 @@ public class PropertiesManager {
      * @throws RuntimeException if the property value cannot be converted to a long
      */
     public long getPropertyAsLong(String key) {
-        checkPropertiesInitialized();
-        LOGGER.info("Returning Property of '" + key + "' as int");
-        String value = properties.getProperty(key);
+        PropertiesSnapshot properties = snapshot;
+        Long value = properties.getLong(key);
+        if (value == null) {
+            throw conversionFailure(key, "long", properties.get(key));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of the specified property as a long, or the given default if the property is not specified.
+     *
+     * @param key          the name of the property to retrieve
+     * @param defaultValue the value returned if the property is not specified
+     * @return the long value of the property
+     * @throws RuntimeException if the property value cannot be converted to a long
+     */
+    public long getPropertyAsLong(String key, long defaultValue) {
+        return snapshot.get(key) != null ? getPropertyAsLong(key) : defaultValue;
+    }
+
+    /**
+     * Returns the value of the specified property as a URI.
+     *
+     * @param key the name of the property to retrieve
+     * @return the URI value of the property
+     * @throws RuntimeException if the property value is not an absolute URI
+     */
+    public URI getPropertyAsUri(String key) {
+        PropertiesSnapshot properties = snapshot;
+        URI value = properties.getUri(key);
+        if (value == null) {
+            throw conversionFailure(key, "URI", properties.get(key));
+        }
+        return value;
+    }
+
+    /**
+     * Reloads the properties files and replaces the snapshot. If a file cannot be read or resolved,
+     * or a property loaded at construction is missing, the current snapshot is kept.
+     */
+    public void reload() {
+        PropertiesSnapshot reloaded;
+        try {
+            reloaded = loadPropertiesFiles();
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Failed to resolve reloaded properties, keeping the previous ones", e);
+            return;
+        }
+        if (reloaded == null) {
+            return;
+        }
+        List<String> missingKeys = new ArrayList<>();
+        for (String key : requiredKeys) {
+            if (reloaded.get(key) == null) {
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            LOGGER.error("Reloaded properties miss the properties {}, keeping the previous ones", missingKeys);
+            return;
+        }
+        snapshot = reloaded;
+    }
+
+    /**
+     * Starts a daemon thread reloading the properties files whenever one of them changes, e.g. to change settings of a long load run.
+     * Settings read once at startup, like the size of the HTTP connection pool, are not affected by a reload.
+     *
+     * @throws IOException if the directory of a properties file cannot be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Path path : paths) {
+            if (directories.add(path.getParent())) {
+                path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(service), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOGGER.info("Watching properties files '{}' for changes", paths);
+    }
+
+    /**
+     * Stops watching the properties files.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    /**
+     * Reloads the properties files after changes notified by the watch service, until the watch service is closed.
+     * Changes following each other within the debounce time, e.g. an editor truncating a file and then writing it, cause a single reload.
+     *
+     * @param service the watch service registered on the directories of the properties files
+     */
+    private void watch(WatchService service) {
         try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
-            String errorMessage = "Failed to convert property '" + key + "' to long: " + value;
-            LOGGER.error(errorMessage, e);
-            throw new RuntimeException(errorMessage + e);
+            while (true) {
+                Path changed = pollChangedFile(service.take());
+                if (changed == null) {
+                    continue;
+                }
+                WatchKey next;
+                while ((next = service.poll(RELOAD_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    Path path = pollChangedFile(next);
+                    if (path != null) {
+                        changed = path;
+                    }
+                }
+                LOGGER.info("Properties file '{}' changed, reloading", changed);
+                reload();
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.info("Stopped watching properties files '{}'", paths);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Loads the properties file with the specified file path.
+     * Takes the events of a signalled watch key and resets the key.
      *
-     * @param filePath the path of the properties file to load
+     * @param key the signalled watch key
+     * @return the last changed properties file, or null if the events concern other files
      */
-    private void loadPropertiesFile(String filePath) {
-        LOGGER.info("Loading properties file");
-        File file = new File(filePath);
-        if (!file.exists()) {
-            throw new IllegalArgumentException("Properties file not found: " + filePath);
+    private Path pollChangedFile(WatchKey key) {
+        Path changed = null;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                Path path = ((Path) key.watchable()).resolve((Path) event.context());
+                if (paths.contains(path)) {
+                    changed = path;
+                }
+            }
         }
-        properties = new Properties();
-        try (FileInputStream fileInputStream = new FileInputStream(file)) {
-            properties.load(fileInputStream);
-            LOGGER.info("Properties file '{}' loaded successfully", filePath);
-        } catch (IOException e) {
-            LOGGER.error("Failed to load properties file '{}'", filePath, e);
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Loads the properties files and merges them with the system properties and environment variables overriding their properties into a new snapshot.
+     *
+     * @return the snapshot, or null if a file cannot be reloaded
+     * @throws UncheckedIOException     if a file cannot be read at construction
+     * @throws IllegalArgumentException if a value references a property that is not specified, or references itself
+     */
+    private PropertiesSnapshot loadPropertiesFiles() {
+        LOGGER.info("Loading properties files");
+        Map<String, String> merged = new HashMap<>();
+        for (Path path : paths) {
+            Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                properties.load(inputStream);
+                LOGGER.info("Properties file '{}' loaded successfully", path);
+            } catch (IOException e) {
+                if (snapshot == null) {
+                    throw new UncheckedIOException("Failed to load properties file: " + path, e);
+                }
+                LOGGER.error("Failed to reload properties file '{}', keeping the previous properties", path, e);
+                return null;
+            }
+            for (String key : properties.stringPropertyNames()) {
+                merged.put(key, properties.getProperty(key));
+            }
+        }
+        Map<String, String> environment = System.getenv();
+        for (Map.Entry<String, String> property : merged.entrySet()) {
+            String value = environment.get(toEnvironmentVariableName(property.getKey()));
+            if (value == null) {
+                value = System.getProperty(property.getKey());
+            }
+            if (value != null) {
+                property.setValue(value);
+            }
         }
+        return new PropertiesSnapshot(merged);
     }
 
     /**
-     * Checks if the properties object has been initialized.
+     * Returns the name of the environment variable overriding a property: upper case, with the characters other than letters and digits replaced by '_'.
      *
-     * @throws IllegalStateException if the properties object is not initialized
+     * @param key the name of the property, e.g. 'api.base.uri'
+     * @return the name of the environment variable, e.g. 'API_BASE_URI'
      */
-    private void checkPropertiesInitialized() {
-        if (properties == null) {
-            throw new IllegalStateException("Properties not initialized");
+    private static String toEnvironmentVariableName(String key) {
+        StringBuilder name = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            name.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
         }
+        return name.toString();
+    }
+
+    /**
+     * Builds the exception thrown when a property cannot be converted to the requested type.
+     *
+     * @param key   the name of the property
+     * @param type  the requested type
+     * @param value the value of the property
+     * @return the exception to throw
+     */
+    private static RuntimeException conversionFailure(String key, String type, String value) {
+        String errorMessage = "Failed to convert property '" + key + "' to " + type + ": " + value;
+        LOGGER.error(errorMessage);
+        return new RuntimeException(errorMessage);
     }
 
 }
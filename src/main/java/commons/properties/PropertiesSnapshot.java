@@ -0,0 +1,227 @@
+package commons.properties;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Immutable view of the properties at the time they were loaded.
+ * References to other properties in the values, written as {{key}}, are resolved and the typed values (long, boolean and URI)
+ * are parsed once when the snapshot is created, so lookups are plain map reads without locks.
+ *
+ * @author Jaspal Aujla
+ */
+public final class PropertiesSnapshot {
+
+    /**
+     * Start of a reference to a property.
+     */
+    private static final String PLACEHOLDER_START = "{{";
+
+    /**
+     * End of a reference to a property.
+     */
+    private static final String PLACEHOLDER_END = "}}";
+
+    /**
+     * The resolved values, keyed by property name.
+     */
+    private final Map<String, String> values;
+
+    /**
+     * The values that are whole numbers, keyed by property name.
+     */
+    private final Map<String, Long> longValues;
+
+    /**
+     * The values parsed as booleans, keyed by property name.
+     */
+    private final Map<String, Boolean> booleanValues;
+
+    /**
+     * The values that are absolute URIs, keyed by property name.
+     */
+    private final Map<String, URI> uriValues;
+
+    /**
+     * The strings whose {{key}} placeholders have been resolved against this snapshot, keyed by original string.
+     */
+    private final ConcurrentMap<String, String> interpolatedStrings = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a snapshot of the given properties, resolving the references between them and parsing the typed values.
+     *
+     * @param properties the merged properties, keyed by property name
+     * @throws IllegalArgumentException if a value references a property that is not specified, or references itself
+     */
+    public PropertiesSnapshot(Map<String, String> properties) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Long> longValues = new HashMap<>();
+        Map<String, Boolean> booleanValues = new HashMap<>();
+        Map<String, URI> uriValues = new HashMap<>();
+        for (String key : properties.keySet()) {
+            resolve(key, properties, values, new ArrayDeque<>());
+        }
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String key = entry.getKey();
+            String trimmed = entry.getValue().trim();
+            if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
+                booleanValues.put(key, Boolean.parseBoolean(trimmed));
+            }
+            try {
+                longValues.put(key, Long.parseLong(trimmed));
+            } catch (NumberFormatException e) {
+                // not a whole number, only available as string
+            }
+            if (trimmed.contains("://")) {
+                try {
+                    uriValues.put(key, new URI(trimmed));
+                } catch (URISyntaxException e) {
+                    // not a valid URI, only available as string
+                }
+            }
+        }
+        this.values = Collections.unmodifiableMap(values);
+        this.longValues = Collections.unmodifiableMap(longValues);
+        this.booleanValues = Collections.unmodifiableMap(booleanValues);
+        this.uriValues = Collections.unmodifiableMap(uriValues);
+    }
+
+    /**
+     * Returns the value of the specified property.
+     *
+     * @param key the name of the property
+     * @return the value, or null if the property is not specified
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Returns the value of the specified property as a long.
+     *
+     * @param key the name of the property
+     * @return the long value, or null if the property is not specified or not a whole number
+     */
+    public Long getLong(String key) {
+        return longValues.get(key);
+    }
+
+    /**
+     * Returns the value of the specified property as a boolean.
+     *
+     * @param key the name of the property
+     * @return the boolean value, or null if the property is not specified or neither 'true' nor 'false'
+     */
+    public Boolean getBoolean(String key) {
+        return booleanValues.get(key);
+    }
+
+    /**
+     * Returns the value of the specified property as a URI.
+     *
+     * @param key the name of the property
+     * @return the URI, or null if the property is not specified or not an absolute URI
+     */
+    public URI getUri(String key) {
+        return uriValues.get(key);
+    }
+
+    /**
+     * Replaces the {{key}} placeholders in the given string with the values of the properties.
+     * The result is cached, as the same header values and endpoints are resolved for every scenario.
+     *
+     * @param str the string in which to replace placeholders
+     * @return the string with placeholders replaced by property values
+     * @throws IllegalArgumentException if a property for a placeholder is not found
+     */
+    public String interpolate(String str) {
+        if (!str.contains(PLACEHOLDER_START)) {
+            return str;
+        }
+        String interpolated = interpolatedStrings.get(str);
+        if (interpolated == null) {
+            interpolated = replacePlaceholders(str, values::get);
+            interpolatedStrings.putIfAbsent(str, interpolated);
+        }
+        return interpolated;
+    }
+
+    /**
+     * Returns all values of the snapshot.
+     *
+     * @return an unmodifiable map of the values, keyed by property name
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * Resolves the references of a property to other properties, resolving the referenced properties first.
+     *
+     * @param key        the name of the property
+     * @param properties the unresolved properties
+     * @param resolved   the resolved properties, completed by this method
+     * @param path       the properties being resolved, to detect circular references
+     * @return the resolved value
+     * @throws IllegalArgumentException if the value references a property that is not specified, or references itself
+     */
+    private static String resolve(String key, Map<String, String> properties, Map<String, String> resolved, Deque<String> path) {
+        String value = resolved.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (path.contains(key)) {
+            throw new IllegalArgumentException("Circular property reference: " + String.join(" -> ", path) + " -> " + key);
+        }
+        String unresolved = properties.get(key);
+        if (unresolved == null) {
+            throw new IllegalArgumentException("Property not found: " + key);
+        }
+        path.addLast(key);
+        value = replacePlaceholders(unresolved, reference -> resolve(reference, properties, resolved, path));
+        path.removeLast();
+        resolved.put(key, value);
+        return value;
+    }
+
+    /**
+     * Replaces the {{key}} placeholders in the given string.
+     *
+     * @param str    the string in which to replace placeholders
+     * @param lookup the function returning the value of a property, or null if the property is not specified
+     * @return the string with placeholders replaced
+     * @throws IllegalArgumentException if a property for a placeholder is not found
+     */
+    private static String replacePlaceholders(String str, Function<String, String> lookup) {
+        int startIndex = str.indexOf(PLACEHOLDER_START);
+        if (startIndex == -1) {
+            return str;
+        }
+        StringBuilder result = new StringBuilder(str.length() + 32);
+        int position = 0;
+        while (startIndex != -1) {
+            int endIndex = str.indexOf(PLACEHOLDER_END, startIndex + PLACEHOLDER_START.length());
+            if (endIndex == -1) {
+                break;
+            }
+            String key = str.substring(startIndex + PLACEHOLDER_START.length(), endIndex);
+            String value = lookup.apply(key);
+            if (value == null) {
+                throw new IllegalArgumentException("Property not found: " + key);
+            }
+            result.append(str, position, startIndex).append(value);
+            position = endIndex + PLACEHOLDER_END.length();
+            startIndex = str.indexOf(PLACEHOLDER_START, position);
+        }
+        return result.append(str, position, str.length()).toString();
+    }
+
+}
@@ -0,0 +1,225 @@
+package commons.restbase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Output stream that hands the written bytes to a background thread, which writes them to the target stream in batches.
+ * The bytes written by each thread are collected into entries ending with a line break, e.g. a whole request log printed with println,
+ * so an entry is queued with a single copy and is written or dropped as a whole.
+ * Entries are kept in a bounded buffer; when it is full, they are dropped or the writing thread waits, according to the policy.
+ * Flushing does not wait for the background thread, so the threads producing log output never wait for I/O.
+ */
+public class AsyncLogWriter extends OutputStream {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLogWriter.class);
+
+    /**
+     * Maximum number of entries written to the target stream before it is flushed.
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    /**
+     * Initial capacity in bytes of the entry collected by each thread.
+     */
+    private static final int INITIAL_ENTRY_CAPACITY = 1024;
+
+    /**
+     * Entry marking the end of the stream for the background thread.
+     */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    /**
+     * Stream the log entries are written to.
+     */
+    private final OutputStream target;
+
+    /**
+     * Whether the target stream is closed together with this writer.
+     */
+    private final boolean closeTarget;
+
+    /**
+     * Bounded buffer of the entries not written yet.
+     */
+    private final BlockingQueue<byte[]> buffer;
+
+    /**
+     * The bytes of the entry each thread is writing, up to its line break. Reused for all entries of the thread.
+     */
+    private final ThreadLocal<ByteArrayOutputStream> pendingEntry = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_ENTRY_CAPACITY));
+
+    /**
+     * What to do when the buffer is full.
+     */
+    private final LogOverflowPolicy overflowPolicy;
+
+    /**
+     * Background thread writing the entries to the target stream.
+     */
+    private final Thread writerThread;
+
+    /**
+     * Number of entries dropped because the buffer was full or the writer was closed.
+     */
+    private final LongAdder droppedEntries = new LongAdder();
+
+    /**
+     * Whether the writer has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructor to initialize the writer and start its background thread.
+     * @param target Stream the log entries are written to.
+     * @param closeTarget Whether the target stream is closed together with this writer.
+     * @param capacity Maximum number of entries held in the buffer.
+     * @param overflowPolicy What to do when the buffer is full.
+     * @param name Name of the background thread.
+     */
+    public AsyncLogWriter(OutputStream target, boolean closeTarget, int capacity, LogOverflowPolicy overflowPolicy, String name) {
+        this.target = target;
+        this.closeTarget = closeTarget;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        writerThread = new Thread(this::writeEntries, name);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void write(int b) {
+        ByteArrayOutputStream entry = pendingEntry.get();
+        entry.write(b);
+        if (b == '\n') {
+            completeEntry(entry);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        ByteArrayOutputStream entry = pendingEntry.get();
+        entry.write(bytes, offset, length);
+        if (bytes[offset + length - 1] == '\n') {
+            completeEntry(entry);
+        }
+    }
+
+    /**
+     * Does not wait for the buffered entries to be written; the background thread flushes the target stream after each batch.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Method to write all buffered entries, stop the background thread and close the target stream if requested.
+     * The incomplete entry of the closing thread is written as well; incomplete entries of other threads are discarded.
+     * @throws IOException if the target stream cannot be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        ByteArrayOutputStream entry = pendingEntry.get();
+        if (entry.size() > 0) {
+            completeEntry(entry);
+        }
+        closed = true;
+        try {
+            buffer.put(END_OF_STREAM);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (closeTarget) {
+            target.close();
+        } else {
+            target.flush();
+        }
+    }
+
+    /**
+     * Getter method for the number of dropped entries.
+     * @return Number of entries dropped because the buffer was full or the writer was closed.
+     */
+    public long getDroppedEntries() {
+        return droppedEntries.sum();
+    }
+
+    /**
+     * Method to queue the entry collected by the current thread and clear it for the next entry.
+     * @param entry Bytes of the entry.
+     */
+    private void completeEntry(ByteArrayOutputStream entry) {
+        enqueue(entry.toByteArray());
+        entry.reset();
+    }
+
+    /**
+     * Method to add an entry to the buffer according to the overflow policy.
+     * @param entry Entry to be written.
+     */
+    private void enqueue(byte[] entry) {
+        if (closed) {
+            droppedEntries.increment();
+            return;
+        }
+        if (overflowPolicy == LogOverflowPolicy.BLOCK) {
+            try {
+                buffer.put(entry);
+            } catch (InterruptedException e) {
+                droppedEntries.increment();
+                Thread.currentThread().interrupt();
+            }
+        } else if (!buffer.offer(entry)) {
+            droppedEntries.increment();
+        }
+    }
+
+    /**
+     * Method run by the background thread to write the buffered entries in batches until the end of the stream.
+     */
+    private void writeEntries() {
+        List<byte[]> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+                for (byte[] entry : batch) {
+                    if (entry == END_OF_STREAM) {
+                        target.flush();
+                        return;
+                    }
+                    target.write(entry);
+                }
+                batch.clear();
+                if (buffer.isEmpty()) {
+                    target.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.error("Failed to write log entries, further entries are dropped", e);
+            closed = true;
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package commons.restbase;
+
+import commons.metrics.RequestTimer;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpCoreContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class for managing a pooled, keep-alive HTTP client shared by all RestAssured requests.
+ * Connections are reused across threads and scenarios, limited per route and evicted when idle.
+ * Every response releases its connection as soon as it is received, and a request waits for a free connection at most
+ * the connection request timeout, so an exhausted pool fails the request instead of blocking it forever.
+ */
+// RestAssured 5 still requires HttpClient 4's AbstractHttpClient; its classes are not imported, as imports cannot suppress warnings
+@SuppressWarnings("deprecation")
+public class HttpConnectionPool {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+    /**
+     * HttpContext attribute holding the time the current exchange started.
+     */
+    private static final String EXCHANGE_START_ATTRIBUTE = HttpConnectionPool.class.getName() + ".start";
+
+    /**
+     * HttpContext attribute holding whether the current exchange reused a pooled connection.
+     */
+    private static final String CONNECTION_REUSED_ATTRIBUTE = HttpConnectionPool.class.getName() + ".reused";
+
+    /**
+     * Connection manager holding the pooled connections.
+     */
+    private final org.apache.http.impl.conn.PoolingClientConnectionManager connectionManager;
+
+    /**
+     * HTTP client shared by all requests.
+     */
+    private final org.apache.http.impl.client.DefaultHttpClient httpClient;
+
+    /**
+     * Scheduler closing expired and idle connections.
+     */
+    private final ScheduledExecutorService idleConnectionEvictor;
+
+    /**
+     * Number of requests sent on a connection that was already used before.
+     */
+    private final LongAdder connectionHits = new LongAdder();
+
+    /**
+     * Number of requests that had to open a new connection.
+     */
+    private final LongAdder connectionMisses = new LongAdder();
+
+    /**
+     * Total time in nanoseconds until the response head arrived, for requests on reused connections.
+     */
+    private final LongAdder reusedConnectionNanos = new LongAdder();
+
+    /**
+     * Total time in nanoseconds until the response head arrived, for requests on new connections.
+     */
+    private final LongAdder newConnectionNanos = new LongAdder();
+
+    /**
+     * Constructor to initialize the connection pool and the shared HTTP client.
+     * @param maxTotal Maximum number of connections in the pool.
+     * @param maxPerRoute Maximum number of connections per route (scheme, host and port).
+     * @param idleTimeoutMillis Time after which an unused connection is closed.
+     * @param keepAliveMillis Maximum time a connection is kept alive when the server does not say otherwise.
+     * @param evictionIntervalMillis Interval at which expired and idle connections are evicted.
+     * @param connectionRequestTimeoutMillis Maximum time a request waits for a free connection of the pool.
+     */
+    public HttpConnectionPool(int maxTotal, int maxPerRoute, long idleTimeoutMillis, long keepAliveMillis, long evictionIntervalMillis,
+                              long connectionRequestTimeoutMillis) {
+        LOGGER.info("Constructing HttpConnectionPool with maxTotal: '{}', maxPerRoute: '{}', idleTimeoutMillis: '{}', keepAliveMillis: '{}', connectionRequestTimeoutMillis: '{}'",
+                maxTotal, maxPerRoute, idleTimeoutMillis, keepAliveMillis, connectionRequestTimeoutMillis);
+        connectionManager = new org.apache.http.impl.conn.PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        httpClient = new org.apache.http.impl.client.DefaultHttpClient(connectionManager);
+        httpClient.setKeepAliveStrategy(createKeepAliveStrategy(keepAliveMillis));
+        httpClient.getParams().setLongParameter(org.apache.http.client.params.ClientPNames.CONN_MANAGER_TIMEOUT, connectionRequestTimeoutMillis);
+        addStatisticsInterceptors();
+        RequestTimer.instrument(httpClient);
+        addReleaseInterceptor();
+
+        idleConnectionEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-idle-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleConnectionEvictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a RestAssured HttpClientConfig that makes every request use the pooled HTTP client.
+     * @return HttpClientConfig backed by this pool.
+     */
+    public HttpClientConfig getHttpClientConfig() {
+        return HttpClientConfig.httpClientConfig().reuseHttpClientInstance().httpClientFactory(() -> httpClient);
+    }
+
+    /**
+     * Getter method for the number of requests sent on a reused connection.
+     * @return Number of pool hits.
+     */
+    public long getConnectionHits() {
+        return connectionHits.sum();
+    }
+
+    /**
+     * Getter method for the number of requests that opened a new connection.
+     * @return Number of pool misses.
+     */
+    public long getConnectionMisses() {
+        return connectionMisses.sum();
+    }
+
+    /**
+     * Returns the share of requests served by a reused connection.
+     * @return Hit ratio between 0 and 1, or 0 when no request was sent yet.
+     */
+    public double getHitRatio() {
+        long hits = getConnectionHits();
+        long total = hits + getConnectionMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the average time until the response head arrived for requests on reused connections.
+     * @return Average latency in milliseconds.
+     */
+    public double getAverageReusedConnectionLatencyMillis() {
+        return averageMillis(reusedConnectionNanos.sum(), getConnectionHits());
+    }
+
+    /**
+     * Returns the average time until the response head arrived for requests that opened a new connection.
+     * @return Average latency in milliseconds.
+     */
+    public double getAverageNewConnectionLatencyMillis() {
+        return averageMillis(newConnectionNanos.sum(), getConnectionMisses());
+    }
+
+    /**
+     * Returns the current totals of the pool (leased, available, pending and maximum connections).
+     * @return PoolStats of the connection manager.
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Returns a one line summary of the pool statistics, suitable for logging.
+     * @return Summary of the pool statistics.
+     */
+    public String getStatisticsSummary() {
+        return String.format("hits=%d, misses=%d, hitRatio=%.2f, avgReusedMillis=%.2f, avgNewMillis=%.2f, %s",
+                getConnectionHits(), getConnectionMisses(), getHitRatio(),
+                getAverageReusedConnectionLatencyMillis(), getAverageNewConnectionLatencyMillis(), getPoolStats());
+    }
+
+    /**
+     * Method to stop the idle connection eviction and close all pooled connections.
+     */
+    public void shutdown() {
+        LOGGER.info("Shutting down HttpConnectionPool");
+        idleConnectionEvictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Method to create a keep-alive strategy honouring the server's Keep-Alive header, capped at the given duration.
+     * @param keepAliveMillis Maximum keep-alive duration.
+     * @return ConnectionKeepAliveStrategy for the shared HTTP client.
+     */
+    private static ConnectionKeepAliveStrategy createKeepAliveStrategy(long keepAliveMillis) {
+        DefaultConnectionKeepAliveStrategy serverStrategy = new DefaultConnectionKeepAliveStrategy();
+        return (response, context) -> {
+            long serverKeepAliveMillis = serverStrategy.getKeepAliveDuration(response, context);
+            return serverKeepAliveMillis > 0 ? Math.min(serverKeepAliveMillis, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+
+    /**
+     * Method to add the interceptors counting pool hits and misses and measuring their latency.
+     * A connection that has already sent a request before the current one is a reused (hit) connection.
+     */
+    private void addStatisticsInterceptors() {
+        httpClient.addRequestInterceptor((request, context) -> {
+            HttpConnection connection = (HttpConnection) context.getAttribute(HttpCoreContext.HTTP_CONNECTION);
+            boolean reused = connection != null && connection.getMetrics().getRequestCount() > 0;
+            context.setAttribute(CONNECTION_REUSED_ATTRIBUTE, reused);
+            context.setAttribute(EXCHANGE_START_ATTRIBUTE, System.nanoTime());
+            if (reused) {
+                connectionHits.increment();
+            } else {
+                connectionMisses.increment();
+            }
+        });
+        httpClient.addResponseInterceptor((response, context) -> {
+            Object start = context.getAttribute(EXCHANGE_START_ATTRIBUTE);
+            if (start == null) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - (Long) start;
+            if (Boolean.TRUE.equals(context.getAttribute(CONNECTION_REUSED_ATTRIBUTE))) {
+                reusedConnectionNanos.add(elapsedNanos);
+            } else {
+                newConnectionNanos.add(elapsedNanos);
+            }
+        });
+    }
+
+    /**
+     * Method to add the interceptor reading every response body into memory before the response is returned, so the connection
+     * goes back to the pool right away. RestAssured only reads, and thereby releases, the bodies it uses: a response without
+     * a body (e.g. '200' with 'Content-Length: 0') would otherwise keep its connection leased. RestAssured buffers the
+     * whole body of every response anyway. Added last, so the time to first byte is measured before the body is read.
+     */
+    private void addReleaseInterceptor() {
+        httpClient.addResponseInterceptor((response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                response.setEntity(new BufferedHttpEntity(entity));
+            }
+        });
+    }
+
+    /**
+     * Method to convert a total of nanoseconds into an average in milliseconds.
+     * @param totalNanos Total duration in nanoseconds.
+     * @param count Number of measurements.
+     * @return Average in milliseconds, or 0 when there are no measurements.
+     */
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / (count * 1_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package commons.restbase;
+
+/**
+ * What an AsyncLogWriter does when its buffer is full.
+ */
+public enum LogOverflowPolicy {
+
+    /**
+     * The log entry is dropped and counted, the writing thread never waits.
+     */
+    DROP,
+
+    /**
+     * The writing thread waits until the background writer has made room in the buffer.
+     */
+    BLOCK
+}
@@ -1,7 +1,11 @@
 package commons.restbase;
 
+import commons.metrics.RequestTimer;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.LogConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.ErrorLoggingFilter;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.filter.log.RequestLoggingFilter;
@@ -10,12 +14,13 @@ import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
 import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Class for managing request specifications in RestAssured.
- * Each thread gets its own instance of RequestSpecification.
+ * Each instance holds the RequestSpecification of one scenario, so it does not depend on the thread running the scenario.
  */
 public class RequestBase {
 
@@ -30,71 +35,112 @@ public class RequestBase {
     private final String baseUri;
 
     /**
-     * Builder for the request specifications.
+     * Builders for the request specifications keyed by thread name, each logging to the thread's own log files.
+     * Keyed by name rather than thread, so that scenarios running one after another on threads with the same worker name
+     * (e.g. the virtual threads of the ScenarioExecutor) share the builder and its log files.
      */
-    private static RequestSpecBuilder requestSpecBuilder;
+    private static final ConcurrentMap<String, RequestSpecBuilder> requestSpecBuilders = new ConcurrentHashMap<>();
 
     /**
-     * ThreadLocal variable to hold the RequestSpecification for each thread.
+     * Optional connection pool shared by all requests. When null, RestAssured creates a new HTTP client per request.
      */
-    private final ThreadLocal<RequestSpecification> requestSpecification = new ThreadLocal<>();
+    private static HttpConnectionPool connectionPool;
+
+    /**
+     * The RequestSpecification of the scenario.
+     */
+    private volatile RequestSpecification requestSpecification;
 
     /**
      * Constructor to initialize the RequestSpecification and its builder.
      * @param baseUri Base URI for the requests.
      */
     public RequestBase(String baseUri) {
-        LOGGER.info("Constructing RequestBase with baseUri: '{}'", baseUri);
+        LOGGER.debug("Constructing RequestBase with baseUri: '{}'", baseUri);
         this.baseUri = baseUri;
-        if (requestSpecBuilder == null) {
-            createRequestBuilder();
-        }
         createRequestSpecification();
     }
 
     /**
      * Getter method for the RequestSpecification.
-     * @return RequestSpecification for the current thread.
+     * @return RequestSpecification of the scenario.
      */
     public RequestSpecification getRequestSpecification() {
-        LOGGER.info("Returning RequestSpecification");
-        return requestSpecification.get();
+        LOGGER.debug("Returning RequestSpecification");
+        return requestSpecification;
     }
 
     /**
-     * Method to reset the RequestSpecification for the current thread.
+     * Method to reset the RequestSpecification of the scenario.
      */
     public void resetRequestSpecification() {
-        LOGGER.info("Reset RequestSpecification");
+        LOGGER.debug("Reset RequestSpecification");
         createRequestSpecification();
     }
 
     /**
-     * Method to create and set the RequestSpecification for the current thread.
+     * Setter method for the shared connection pool.
+     * Must be called before the first RequestBase is constructed, as the request builder of each thread is created only once.
+     * @param pool Connection pool to be used by all requests, or null to disable pooling.
+     */
+    public static void setConnectionPool(HttpConnectionPool pool) {
+        LOGGER.info("Setting HttpConnectionPool");
+        connectionPool = pool;
+    }
+
+    /**
+     * Getter method for the shared connection pool.
+     * @return HttpConnectionPool used by all requests, or null if pooling is disabled.
+     */
+    public static HttpConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Method to create and set the RequestSpecification of the scenario, using the builder of the current thread.
      */
     private void createRequestSpecification() {
-        requestSpecification.set(RestAssured.given().spec(requestSpecBuilder.build()).baseUri(baseUri));
+        RequestSpecBuilder requestSpecBuilder = requestSpecBuilders.computeIfAbsent(Thread.currentThread().getName(), name -> createRequestBuilder());
+        requestSpecification = RestAssured.given().spec(requestSpecBuilder.build()).baseUri(baseUri);
     }
 
     /**
-     * Method to create and set the RequestSpecBuilder with logging filters.
+     * Method to create the RequestSpecBuilder of the current thread with the logging filters of the configured log level.
+     * The HTTP clients are instrumented to measure the connect time and the time to first byte of the requests.
+     * @return RequestSpecBuilder for the current thread.
      */
-    private void createRequestBuilder() {
-        LOGGER.info("Creating RequestBuilder");
-        PrintStream logFile = null;
-        PrintStream errorLogFile = null;
-        try {
-            String threadName = Thread.currentThread().getName();
-            logFile = new PrintStream("target/request-response-all-" + threadName + "log");
-            errorLogFile = new PrintStream("target/error-" + threadName + "log");
-        } catch (FileNotFoundException e) {
-            LOGGER.error("Failed to create restassured log files under target folder", e);
-            e.printStackTrace();
+    @SuppressWarnings("deprecation") // RestAssured 5 still requires HttpClient 4's AbstractHttpClient
+    private static RequestSpecBuilder createRequestBuilder() {
+        LOGGER.debug("Creating RequestBuilder");
+        RestLogLevel logLevel = RestLogging.getLevel();
+        RestAssuredConfig config = RestAssuredConfig.config().logConfig(LogConfig.logConfig().defaultStream(RestLogging.getConsoleStream()));
+        if (connectionPool != null) {
+            config = config.httpClient(connectionPool.getHttpClientConfig());
+        } else {
+            config = config.httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(() -> RequestTimer.instrument(new org.apache.http.impl.client.DefaultHttpClient())));
+        }
+        RequestSpecBuilder builder = new RequestSpecBuilder().setConfig(config);
+        if (logLevel == RestLogLevel.NONE) {
+            return builder;
         }
 
-        requestSpecBuilder = new RequestSpecBuilder().log(LogDetail.ALL).
-                addFilter(new RequestLoggingFilter(LogDetail.ALL, logFile)).
-                addFilter(new ResponseLoggingFilter(LogDetail.ALL, logFile)).
-                addFilter(new ErrorLoggingFilter(errorLogFile));
+        builder.addFilter(new ErrorLoggingFilter(RestLogging.openThreadLogFile("error")));
+        if (logLevel == RestLogLevel.ERRORS) {
+            return builder;
+        }
+        PrintStream logFile = RestLogging.openThreadLogFile("request-response-all");
+        if (logLevel == RestLogLevel.ALL) {
+            builder.log(LogDetail.ALL).
+                    addFilter(new RequestLoggingFilter(LogDetail.ALL, logFile)).
+                    addFilter(new ResponseLoggingFilter(LogDetail.ALL, logFile));
+        } else {
+            builder.log(LogDetail.HEADERS).
+                    addFilter(new RequestLoggingFilter(LogDetail.METHOD, logFile)).
+                    addFilter(new RequestLoggingFilter(LogDetail.URI, logFile)).
+                    addFilter(new RequestLoggingFilter(LogDetail.HEADERS, logFile)).
+                    addFilter(new ResponseLoggingFilter(LogDetail.STATUS, logFile)).
+                    addFilter(new ResponseLoggingFilter(LogDetail.HEADERS, logFile));
+        }
+        return builder;
     }
 }
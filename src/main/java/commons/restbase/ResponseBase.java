@@ -17,33 +17,40 @@ public class ResponseBase {
     private static final Logger LOGGER = LoggerFactory.getLogger(ResponseBase.class);
 
     /**
-     * ThreadLocal variable to hold the ResponseSpecification for each thread.
+     * The ResponseSpecification of the scenario.
      */
-    private final ThreadLocal<ResponseSpecification> responseSpecification = new ThreadLocal<>();
+    private final ResponseSpecification responseSpecification;
 
     /**
      * Constructor to initialize the ResponseSpecification.
      */
     public ResponseBase() {
-        LOGGER.info("Constructing ResponseBase");
-        createResponseSpecification();
+        LOGGER.debug("Constructing ResponseBase");
+        responseSpecification = createResponseSpecification();
     }
 
     /**
      * Getter method for the ResponseSpecification.
-     * @return ResponseSpecification for the current thread.
+     * @return ResponseSpecification of the scenario.
      */
     public ResponseSpecification getResponseSpecification() {
-        return responseSpecification.get();
+        return responseSpecification;
     }
 
     /**
-     * Method to create and set the ResponseSpecification for the current thread.
+     * Method to create the ResponseSpecification with the console logging of the configured log level.
+     * @return ResponseSpecification of the scenario.
      */
-    private void createResponseSpecification() {
-        LOGGER.info("Creating ResponseSpecBuilder");
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder().log(LogDetail.ALL);
-        LOGGER.info("Returning ResponseSpecification");
-        responseSpecification.set(responseSpecBuilder.build());
+    private ResponseSpecification createResponseSpecification() {
+        LOGGER.debug("Creating ResponseSpecBuilder");
+        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
+        RestLogLevel logLevel = RestLogging.getLevel();
+        if (logLevel == RestLogLevel.ALL) {
+            responseSpecBuilder.log(LogDetail.ALL);
+        } else if (logLevel == RestLogLevel.HEADERS) {
+            responseSpecBuilder.log(LogDetail.HEADERS);
+        }
+        LOGGER.debug("Returning ResponseSpecification");
+        return responseSpecBuilder.build();
     }
 }
@@ -0,0 +1,27 @@
+package commons.restbase;
+
+/**
+ * Detail of the request and response logging of RestAssured.
+ */
+public enum RestLogLevel {
+
+    /**
+     * No request and response logging.
+     */
+    NONE,
+
+    /**
+     * Only responses with an error status code are logged.
+     */
+    ERRORS,
+
+    /**
+     * Request method, URI and headers and response status and headers are logged, without bodies.
+     */
+    HEADERS,
+
+    /**
+     * Requests and responses are logged completely.
+     */
+    ALL
+}
@@ -0,0 +1,227 @@
+package commons.restbase;
+
+import io.restassured.RestAssured;
+import io.restassured.config.LogConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class holding the request and response logging settings shared by RequestBase and ResponseBase.
+ * All log output, including the console, goes through AsyncLogWriters, so request threads never wait for log I/O.
+ * Each thread writes its own rotating log files, which are merged into one file per log on shutdown.
+ */
+public final class RestLogging {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestLogging.class);
+
+    /**
+     * Detail of the request and response logging.
+     */
+    private static volatile RestLogLevel level = RestLogLevel.ALL;
+
+    /**
+     * Maximum number of entries buffered by each writer.
+     */
+    private static int bufferCapacity = 8192;
+
+    /**
+     * What the writers do when their buffer is full.
+     */
+    private static LogOverflowPolicy overflowPolicy = LogOverflowPolicy.BLOCK;
+
+    /**
+     * Directory of the log files.
+     */
+    private static String logDirectory = "target/rest-log";
+
+    /**
+     * Maximum size of a log file in bytes before it is rotated.
+     */
+    private static long maxFileBytes = 10L * 1024 * 1024;
+
+    /**
+     * Maximum number of rotated backups of each log file.
+     */
+    private static int maxBackups = 5;
+
+    /**
+     * Whether the log files of all threads are merged on shutdown.
+     */
+    private static boolean mergeOnShutdown = true;
+
+    /**
+     * Stream writing asynchronously to the console, created on first use.
+     */
+    private static PrintStream consoleStream;
+
+    /**
+     * All writers opened, closed on shutdown.
+     */
+    private static final List<AsyncLogWriter> writers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The file sinks of each thread, keyed by log name.
+     */
+    private static final Map<String, List<RotatingFileSink>> fileSinks = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private RestLogging() {}
+
+    /**
+     * Method to set the logging settings. Must be called before the first RequestBase and ResponseBase are constructed.
+     * @param logLevel Detail of the request and response logging.
+     * @param capacity Maximum number of entries buffered by each writer.
+     * @param policy What the writers do when their buffer is full.
+     */
+    public static synchronized void configure(RestLogLevel logLevel, int capacity, LogOverflowPolicy policy) {
+        LOGGER.info("Configuring REST logging with level: '{}', buffer capacity: {}, overflow policy: '{}'", logLevel, capacity, policy);
+        level = logLevel;
+        bufferCapacity = capacity;
+        overflowPolicy = policy;
+        RestAssured.config = RestAssured.config().logConfig(LogConfig.logConfig().defaultStream(getConsoleStream()));
+    }
+
+    /**
+     * Method to set the log file settings. Must be called before the first RequestBase is constructed.
+     * @param directory Directory of the log files.
+     * @param fileBytes Maximum size of a log file in bytes before it is rotated.
+     * @param backups Maximum number of rotated backups of each log file.
+     * @param merge Whether the log files of all threads are merged on shutdown.
+     */
+    public static synchronized void configureFiles(String directory, long fileBytes, int backups, boolean merge) {
+        LOGGER.info("Configuring REST log files in directory: '{}', max file size: {}, max backups: {}, merge: {}", directory, fileBytes, backups, merge);
+        logDirectory = directory;
+        maxFileBytes = fileBytes;
+        maxBackups = backups;
+        mergeOnShutdown = merge;
+    }
+
+    /**
+     * Getter method for the logging detail.
+     * @return Detail of the request and response logging.
+     */
+    public static RestLogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Getter method for the console stream.
+     * @return Stream writing asynchronously to the console.
+     */
+    public static synchronized PrintStream getConsoleStream() {
+        if (consoleStream == null) {
+            consoleStream = new PrintStream(register(new AsyncLogWriter(System.out, false, bufferCapacity, overflowPolicy, "rest-log-console")));
+        }
+        return consoleStream;
+    }
+
+    /**
+     * Method to open a log file of the current thread, written asynchronously to a rotating file '{name}-{thread}.log'.
+     * @param name Name of the log, e.g. 'error'.
+     * @return Stream writing asynchronously to the file, or null if the file cannot be created.
+     */
+    public static PrintStream openThreadLogFile(String name) {
+        String threadName = Thread.currentThread().getName().replaceAll("[^A-Za-z0-9._-]", "_");
+        Path path = Paths.get(logDirectory, name + "-" + threadName + ".log");
+        try {
+            RotatingFileSink sink = new RotatingFileSink(path, maxFileBytes, maxBackups);
+            fileSinks.computeIfAbsent(name, k -> new CopyOnWriteArrayList<>()).add(sink);
+            AsyncLogWriter writer = new AsyncLogWriter(sink, true, bufferCapacity, overflowPolicy, "rest-log-" + name + "-" + threadName);
+            return new PrintStream(register(writer));
+        } catch (IOException e) {
+            LOGGER.error("Failed to create restassured log file: '{}'", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Getter method for the number of dropped log entries.
+     * @return Number of log entries dropped by all writers.
+     */
+    public static long getDroppedEntries() {
+        long dropped = 0;
+        for (AsyncLogWriter writer : writers) {
+            dropped += writer.getDroppedEntries();
+        }
+        return dropped;
+    }
+
+    /**
+     * Method to write all buffered log entries and close the log files.
+     */
+    public static synchronized void shutdown() {
+        LOGGER.info("Shutting down REST logging, dropped log entries: {}", getDroppedEntries());
+        for (AsyncLogWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close log writer", e);
+            }
+        }
+        writers.clear();
+        consoleStream = null;
+        if (mergeOnShutdown) {
+            for (Map.Entry<String, List<RotatingFileSink>> entry : fileSinks.entrySet()) {
+                mergeLogFiles(entry.getKey(), entry.getValue());
+            }
+        }
+        fileSinks.clear();
+    }
+
+    /**
+     * Method to concatenate the log files of all threads into a single file '{name}.log', thread by thread.
+     * @param name Name of the log.
+     * @param sinks File sinks of the threads.
+     */
+    private static void mergeLogFiles(String name, List<RotatingFileSink> sinks) {
+        Path mergedPath = Paths.get(logDirectory, name + ".log");
+        LOGGER.info("Merging {} '{}' log files into: '{}'", sinks.size(), name, mergedPath);
+        try (FileChannel merged = FileChannel.open(mergedPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (RotatingFileSink sink : sinks) {
+                ByteBuffer header = ByteBuffer.wrap(("===== " + sink.getPath().getFileName() + " =====" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+                while (header.hasRemaining()) {
+                    merged.write(header);
+                }
+                for (Path file : sink.getFiles()) {
+                    try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = source.size();
+                        while (position < size) {
+                            position += source.transferTo(position, size - position, merged);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to merge '{}' log files", name, e);
+        }
+    }
+
+    /**
+     * Method to keep track of a writer to close it on shutdown.
+     * @param writer Writer to be registered.
+     * @return The given writer.
+     */
+    private static AsyncLogWriter register(AsyncLogWriter writer) {
+        writers.add(writer);
+        return writer;
+    }
+}
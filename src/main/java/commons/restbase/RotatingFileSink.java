@@ -0,0 +1,182 @@
+package commons.restbase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output stream writing to a file through a buffered file channel.
+ * When a write would grow the file beyond the maximum size, the file is rotated: it is renamed to 'name.1',
+ * older backups are shifted to 'name.2' and so on, and the oldest backup beyond the maximum count is overwritten.
+ * Not thread-safe; each sink is meant to be written by a single AsyncLogWriter.
+ */
+public class RotatingFileSink extends OutputStream {
+
+    /**
+     * Size of the buffer in front of the file channel.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Path of the current log file.
+     */
+    private final Path path;
+
+    /**
+     * Maximum size of a log file in bytes.
+     */
+    private final long maxFileBytes;
+
+    /**
+     * Maximum number of rotated backup files.
+     */
+    private final int maxBackups;
+
+    /**
+     * Buffer collecting the bytes before they are written to the channel.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Channel of the current log file.
+     */
+    private FileChannel channel;
+
+    /**
+     * Number of bytes written to the current log file, including the buffered bytes.
+     */
+    private long fileBytes;
+
+    /**
+     * Constructor to create the log file, replacing the file and backups of a previous run.
+     * @param path Path of the log file.
+     * @param maxFileBytes Maximum size of a log file in bytes.
+     * @param maxBackups Maximum number of rotated backup files.
+     * @throws IOException if the file cannot be created.
+     */
+    public RotatingFileSink(Path path, long maxFileBytes, int maxBackups) throws IOException {
+        this.path = path;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        for (int i = 1; i <= maxBackups; i++) {
+            Files.deleteIfExists(backupPath(i));
+        }
+        openChannel();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (fileBytes > 0 && fileBytes + length > maxFileBytes) {
+            rotate();
+        }
+        fileBytes += length;
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drainBuffer();
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drainBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drainBuffer();
+        channel.close();
+    }
+
+    /**
+     * Getter method for the path of the current log file.
+     * @return Path of the current log file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Method to list the log files written by this sink, oldest first.
+     * @return Existing backup files followed by the current log file.
+     */
+    public List<Path> getFiles() {
+        List<Path> files = new ArrayList<>();
+        for (int i = maxBackups; i >= 1; i--) {
+            Path backup = backupPath(i);
+            if (Files.exists(backup)) {
+                files.add(backup);
+            }
+        }
+        files.add(path);
+        return files;
+    }
+
+    /**
+     * Method to write the buffered bytes to the channel.
+     * @throws IOException if the bytes cannot be written.
+     */
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Method to close the current log file, shift the backups and start a new log file.
+     * @throws IOException if the files cannot be renamed or created.
+     */
+    private void rotate() throws IOException {
+        close();
+        if (maxBackups > 0) {
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path backup = backupPath(i);
+                if (Files.exists(backup)) {
+                    Files.move(backup, backupPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, backupPath(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openChannel();
+    }
+
+    /**
+     * Method to open the current log file, truncating it.
+     * @throws IOException if the file cannot be created.
+     */
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        fileBytes = 0;
+    }
+
+    /**
+     * Method to get the path of a backup file.
+     * @param index Number of the backup, 1 being the most recent.
+     * @return Path of the backup file.
+     */
+    private Path backupPath(int index) {
+        return Paths.get(path + "." + index);
+    }
+}
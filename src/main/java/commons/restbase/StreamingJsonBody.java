@@ -0,0 +1,266 @@
+package commons.restbase;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Request body that serializes a JSON document made of maps, lists and values while it is being sent.
+ * The document is walked token by token with Jackson's streaming generator, and only a small chunk of serialized
+ * bytes is buffered at a time, so the full payload is never materialized as a String or byte array.
+ */
+public class StreamingJsonBody extends InputStream {
+
+    /**
+     * Object mapper providing the streaming generator and serializing values that are not maps, lists or JSON scalars.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Number of JSON tokens written before the generator is flushed into the chunk buffer.
+     */
+    private static final int TOKENS_PER_CHUNK = 256;
+
+    /**
+     * The JSON document to be serialized.
+     */
+    private final Object document;
+
+    /**
+     * Buffer holding the serialized bytes not read yet.
+     */
+    private final ChunkBuffer chunk = new ChunkBuffer();
+
+    /**
+     * Generator writing the JSON tokens into the chunk buffer.
+     */
+    private final JsonGenerator generator;
+
+    /**
+     * Iterators of the maps and lists currently being written, innermost first.
+     */
+    private final Deque<Iterator<?>> containers = new ArrayDeque<>();
+
+    /**
+     * Read position in the chunk buffer.
+     */
+    private int position;
+
+    /**
+     * Whether the root value has been started.
+     */
+    private boolean started;
+
+    /**
+     * Whether the whole document has been written.
+     */
+    private boolean finished;
+
+    /**
+     * Constructor to initialize the streaming body.
+     * @param document JSON document made of maps, lists and values.
+     * @throws IllegalStateException if the generator cannot be created.
+     */
+    public StreamingJsonBody(Object document) {
+        this.document = document;
+        try {
+            generator = OBJECT_MAPPER.getFactory().createGenerator(chunk);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create JSON generator", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fillChunk()) {
+            return -1;
+        }
+        return chunk.byteAt(position++) & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fillChunk()) {
+            return -1;
+        }
+        int count = Math.min(length, chunk.size() - position);
+        chunk.copyTo(position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        generator.close();
+    }
+
+    /**
+     * Description used by request logging, which must not consume the stream.
+     * @return Description of the body.
+     */
+    @Override
+    public String toString() {
+        return "<streamed JSON body>";
+    }
+
+    /**
+     * Method to make sure unread bytes are available, writing the next JSON tokens if the chunk buffer is exhausted.
+     * @return true if bytes are available; false if the whole document has been read.
+     * @throws IOException if the generator fails.
+     */
+    private boolean fillChunk() throws IOException {
+        while (position >= chunk.size()) {
+            if (finished) {
+                return false;
+            }
+            chunk.reset();
+            position = 0;
+            for (int i = 0; i < TOKENS_PER_CHUNK && !finished; i++) {
+                writeNextToken();
+            }
+            generator.flush();
+        }
+        return true;
+    }
+
+    /**
+     * Method to write the next JSON token of the document.
+     * @throws IOException if the generator fails.
+     */
+    private void writeNextToken() throws IOException {
+        if (!started) {
+            started = true;
+            writeValue(document);
+            return;
+        }
+        Iterator<?> container = containers.peek();
+        if (container == null) {
+            finished = true;
+            generator.close();
+            return;
+        }
+        if (!container.hasNext()) {
+            containers.pop();
+            if (container instanceof MapIterator) {
+                generator.writeEndObject();
+            } else {
+                generator.writeEndArray();
+            }
+            return;
+        }
+        Object next = container.next();
+        if (container instanceof MapIterator) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) next;
+            generator.writeFieldName(String.valueOf(entry.getKey()));
+            writeValue(entry.getValue());
+        } else {
+            writeValue(next);
+        }
+    }
+
+    /**
+     * Method to write a value. Maps and lists are only opened here, their content is written by the following tokens.
+     * @param value Value to be written.
+     * @throws IOException if the generator fails.
+     */
+    private void writeValue(Object value) throws IOException {
+        if (value instanceof Map) {
+            generator.writeStartObject();
+            containers.push(new MapIterator(((Map<?, ?>) value).entrySet().iterator()));
+        } else if (value instanceof Iterable) {
+            generator.writeStartArray();
+            containers.push(((Iterable<?>) value).iterator());
+        } else if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    /**
+     * Iterator over the entries of a map, marking the container as a JSON object.
+     */
+    private static final class MapIterator implements Iterator<Map.Entry<?, ?>> {
+
+        /**
+         * Iterator over the map entries.
+         */
+        private final Iterator<? extends Map.Entry<?, ?>> entries;
+
+        /**
+         * Constructor to initialize the iterator.
+         * @param entries Iterator over the map entries.
+         */
+        private MapIterator(Iterator<? extends Map.Entry<?, ?>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public Map.Entry<?, ?> next() {
+            return entries.next();
+        }
+    }
+
+    /**
+     * Byte buffer giving access to its content without copying it.
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+
+        /**
+         * Constructor to initialize the buffer with room for a typical chunk.
+         */
+        private ChunkBuffer() {
+            super(8192);
+        }
+
+        /**
+         * Method to get a single byte of the buffer.
+         * @param index Index of the byte.
+         * @return The byte at the index.
+         */
+        private byte byteAt(int index) {
+            return buf[index];
+        }
+
+        /**
+         * Method to copy a range of the buffer into an array.
+         * @param from Index of the first byte to copy.
+         * @param target Array to copy into.
+         * @param offset Offset in the target array.
+         * @param length Number of bytes to copy.
+         */
+        private void copyTo(int from, byte[] target, int offset, int length) {
+            System.arraycopy(buf, from, target, offset, length);
+        }
+    }
+}
@@ -4,16 +4,20 @@ import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * This class manages data stores of different types.
+ * This class manages the variables of a scenario and the variables shared by all scenarios of the run.
+ * Variables of all types are held in a single map per scope, so each lookup is a single map access; the type of a variable
+ * is the type of its value. Scenario variables take precedence over global variables with the same name.
+ * The global variables are held in a concurrent map, so scenarios running in parallel can share them.
  */
 public class DataStoreManager {
 
@@ -22,33 +26,131 @@ public class DataStoreManager {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(DataStoreManager.class);
 
-    Map<String, String> stringDataStore = new HashMap<>();
-    Map<String, Integer> integerDataStore = new HashMap<>();
-    Map<String, Boolean> booleanDataStore = new HashMap<>();
-    Map<String, BigDecimal> decimalDataStore = new HashMap<>();
+    /**
+     * Pattern of the '{variable}' placeholders.
+     */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{(.*?)\\}");
+
+    /**
+     * The variables shared by all scenarios of the run.
+     */
+    private static final ConcurrentMap<String, Object> globalDataStore = new ConcurrentHashMap<>();
+
+    /**
+     * The variables of the scenario.
+     */
+    private final Map<String, Object> scenarioDataStore = new HashMap<>();
 
     /**
-     * Stores the response body value in the appropriate data store based on the variable type.
+     * The responses of the scenario, which may still be in progress.
+     */
+    private final Map<String, CompletableFuture<Response>> responseDataStore = new ConcurrentHashMap<>();
+
+    /**
+     * Stores the response body value in the data store based on the variable type and scope.
      *
      * @param row      The row of data-table to be stored.
      * @param response The response from which the data is extracted.
      */
     public void storeResponseBodyValue(Map<String, String> row, Response response) {
-        LOGGER.info("Storing response body value");
-        String variableName = row.get("variableName");
-        String variableType = row.get("variableType");
-        String responsePath = row.get("responsePath");
-
-        if(variableType.equalsIgnoreCase("Boolean")) {
-            booleanDataStore.put(variableName, response.getBody().path(responsePath));
-        } else if (variableType.equalsIgnoreCase("Integer")) {
-            integerDataStore.put(variableName, response.getBody().path(responsePath));
-        } else if (variableType.equalsIgnoreCase("Decimal")) {
-            decimalDataStore.put(variableName, response.getBody().path(responsePath));
-        } else if (variableType.equalsIgnoreCase("String")) {
-            stringDataStore.put(variableName, response.getBody().path(responsePath));
+        LOGGER.debug("Storing response body value");
+        storeExtractedValue(row, response.getBody().path(row.get("responsePath")));
+    }
+
+    /**
+     * Stores a value already extracted from the response body in the data store based on the variable type and scope.
+     *
+     * @param row   The row of data-table to be stored, with the columns variableName, variableType and optionally scope.
+     * @param value The value extracted with the response path of the row.
+     * @throws ClassCastException If the value is not of the variable type.
+     */
+    public void storeExtractedValue(Map<String, String> row, Object value) {
+        VariableType variableType = VariableType.fromName(row.get("variableType"));
+        storeValue(row.get("variableName"), variableType.cast(value), VariableScope.fromName(row.get("scope")));
+    }
+
+    /**
+     * Stores a value in the given scope. Storing null removes the variable.
+     *
+     * @param variableName The name of the variable.
+     * @param value        The value to be stored, of one of the variable types.
+     * @param scope        The scope of the variable.
+     */
+    public void storeValue(String variableName, Object value, VariableScope scope) {
+        LOGGER.info("Storing {} value with variableName: '{}'", scope, variableName);
+        Map<String, Object> dataStore = scope == VariableScope.GLOBAL ? globalDataStore : scenarioDataStore;
+        if (value == null) {
+            dataStore.remove(variableName);
         } else {
-            throw new IllegalArgumentException("variableType should be Boolean, Integer, Decimal or String");
+            dataStore.put(variableName, value);
+        }
+    }
+
+    /**
+     * Removes all global variables, at the end of the run.
+     */
+    public static void clearGlobalValues() {
+        LOGGER.info("Clearing {} global values", globalDataStore.size());
+        globalDataStore.clear();
+    }
+
+    /**
+     * Stores a string value in the scenario scope.
+     *
+     * @param variableName The name of the variable.
+     * @param value        The value to be stored.
+     */
+    public void storeStringValue(String variableName, String value) {
+        storeValue(variableName, value, VariableScope.SCENARIO);
+    }
+
+    /**
+     * Stores a response that may still be in progress.
+     *
+     * @param responseName The name of the response.
+     * @param response     The future completed with the response.
+     */
+    public void storeResponse(String responseName, CompletableFuture<Response> response) {
+        LOGGER.info("Storing response with responseName: '{}'", responseName);
+        responseDataStore.put(responseName, response);
+    }
+
+    /**
+     * Retrieves a stored response, waiting for it if it is still in progress.
+     *
+     * @param responseName The name of the response.
+     * @return The response.
+     * @throws IllegalArgumentException If no response is stored under the name.
+     */
+    public Response getResponse(String responseName) {
+        LOGGER.debug("Returning response with responseName: '{}'", responseName);
+        CompletableFuture<Response> response = responseDataStore.get(responseName);
+        if (response == null) {
+            throw new IllegalArgumentException("No response stored with responseName: " + responseName);
+        }
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for all stored responses, failing with the first failed request.
+     */
+    public void awaitResponses() {
+        if (responseDataStore.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Waiting for {} stored responses", responseDataStore.size());
+        for (String responseName : responseDataStore.keySet()) {
+            getResponse(responseName);
         }
     }
 
@@ -60,17 +162,13 @@ public class DataStoreManager {
      * @return The converted or retrieved expected value.
      */
     public Object convertOrRetrieveExpectedValue(Object expectedValue, String expectedValueType) {
-        LOGGER.info("Converting or retrieving expected value with expectedValue: '{}', expectedValueType: '{}'", expectedValue, expectedValueType);
-        if (expectedValue.toString().startsWith("{") && expectedValue.toString().endsWith("}")) {
-            expectedValue = getStoredValue(expectedValue.toString().replace("{", "").replace("}", ""), expectedValueType);
-        } else if (expectedValueType.equalsIgnoreCase("Boolean")) {
-            expectedValue = Boolean.parseBoolean(expectedValue.toString());
-        } else if (expectedValueType.equalsIgnoreCase("Integer")) {
-            expectedValue = Integer.parseInt(expectedValue.toString());
-        } else if (expectedValueType.equalsIgnoreCase("Decimal")) {
-            expectedValue = new BigDecimal(expectedValue.toString());
+        LOGGER.debug("Converting or retrieving expected value with expectedValue: '{}', expectedValueType: '{}'", expectedValue, expectedValueType);
+        String text = expectedValue.toString();
+        if (text.startsWith("{") && text.endsWith("}")) {
+            return getStoredValue(text.replace("{", "").replace("}", ""), VariableType.fromName(expectedValueType));
         }
-        return expectedValue;
+        VariableType variableType = VariableType.lookup(expectedValueType);
+        return variableType != null ? variableType.parse(text) : expectedValue;
     }
 
     /**
@@ -78,22 +176,17 @@ public class DataStoreManager {
      *
      * @param variableName The name of the variable.
      * @param variableType The type of the variable.
-     * @return The stored value.
-     */
-
-    private Object getStoredValue(String variableName, String variableType) {
-        LOGGER.info("Returning stored value with variableName: '{}', variableType: '{}'", variableName, variableType);
-        if(variableType.equalsIgnoreCase("Boolean")) {
-            return booleanDataStore.get(variableName);
-        } else if (variableType.equalsIgnoreCase("Integer")) {
-            return integerDataStore.get(variableName);
-        } else if (variableType.equalsIgnoreCase("Decimal")) {
-            return decimalDataStore.get(variableName);
-        } else if (variableType.equalsIgnoreCase("String")) {
-            return stringDataStore.get(variableName);
-        } else {
-            throw new IllegalArgumentException("variableType should be Boolean, Integer, Decimal or String");
+     * @return The stored value, or null if no value is stored under the name.
+     * @throws IllegalArgumentException If the stored value is not of the type.
+     */
+    private Object getStoredValue(String variableName, VariableType variableType) {
+        LOGGER.debug("Returning stored value with variableName: '{}', variableType: '{}'", variableName, variableType);
+        Object value = getValue(variableName);
+        if (value != null && !variableType.isInstance(value)) {
+            throw new IllegalArgumentException("Variable '" + variableName + "' is not of variableType " + variableType
+                    + ", it holds a " + value.getClass().getSimpleName() + " value");
         }
+        return value;
     }
 
     /**
@@ -103,16 +196,14 @@ public class DataStoreManager {
      * @return The string with placeholders replaced with data.
      */
     public String resolvePlaceholdersWithData(String str) {
-        LOGGER.info("Resolving placeholders with data: '{}'", str);
-        List<Map<String, ?>> replacementsList = Arrays.asList(stringDataStore, integerDataStore, booleanDataStore, decimalDataStore);
-        Pattern pattern = Pattern.compile("\\{(.*?)\\}");
-        Matcher matcher = pattern.matcher(str);
+        LOGGER.debug("Resolving placeholders with data: '{}'", str);
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(str);
         StringBuffer buffer = new StringBuffer();
         while (matcher.find()) {
             String key = matcher.group(1);
-            Object replacement = findReplacement(key, replacementsList);
+            Object replacement = getValue(key);
             if (replacement != null) {
-                matcher.appendReplacement(buffer, replacement.toString());
+                matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement.toString()));
             } else {
                 throw new IllegalArgumentException("No replacement found for key: " + key);
             }
@@ -122,20 +213,14 @@ public class DataStoreManager {
     }
 
     /**
-     * Finds a replacement for a key in a list of replacements.
+     * Returns the value stored under the given variable name, whatever its type, from the scenario or else the global scope.
      *
-     * @param key              The key to be replaced.
-     * @param replacementsList The list of replacements.
-     * @return The replacement for the key.
-     */
-    private Object findReplacement(String key, List<Map<String, ?>> replacementsList) {
-        LOGGER.info("Find replacement with key: '{}', replacementsList: '{}'", key, replacementsList);
-        for (Map<String, ?> replacements : replacementsList) {
-            if (replacements.containsKey(key)) {
-                return replacements.get(key);
-            }
-        }
-        return null;
+     * @param variableName The name of the variable.
+     * @return The stored value, or null if no value is stored under the name.
+     */
+    public Object getValue(String variableName) {
+        Object value = scenarioDataStore.get(variableName);
+        return value != null ? value : globalDataStore.get(variableName);
     }
 
 }
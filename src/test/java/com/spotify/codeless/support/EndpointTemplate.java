@@ -0,0 +1,166 @@
+package com.spotify.codeless.support;
+
+import com.spotify.config.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class represents an endpoint string parsed into literal, property and variable segments.
+ * Property placeholders '{{key}}' are resolved with the config properties, variable placeholders '{key}' with the data store.
+ * Each distinct endpoint string is parsed only once and the parsed template is shared between threads.
+ */
+public final class EndpointTemplate {
+
+    /**
+     * Segment kind of literal text.
+     */
+    private static final byte LITERAL = 0;
+
+    /**
+     * Segment kind of a '{{key}}' placeholder resolved with the config properties.
+     */
+    private static final byte PROPERTY = 1;
+
+    /**
+     * Segment kind of a '{key}' placeholder resolved with the data store.
+     */
+    private static final byte VARIABLE = 2;
+
+    /**
+     * Cache of the parsed templates, keyed by endpoint string.
+     */
+    private static final ConcurrentMap<String, EndpointTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * Buffer reused by each thread to render the templates.
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    /**
+     * The endpoint string the template was parsed from.
+     */
+    private final String template;
+
+    /**
+     * The kind of each segment.
+     */
+    private final byte[] kinds;
+
+    /**
+     * The literal text or placeholder key of each segment.
+     */
+    private final String[] values;
+
+    /**
+     * Constructs a new EndpointTemplate by parsing the given endpoint string.
+     *
+     * @param template the endpoint string
+     */
+    private EndpointTemplate(String template) {
+        this.template = template;
+        List<Byte> segmentKinds = new ArrayList<>();
+        List<String> segmentValues = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        while (index < template.length()) {
+            if (template.charAt(index) != '{') {
+                index++;
+                continue;
+            }
+            boolean property = template.startsWith("{{", index);
+            int keyStart = index + (property ? 2 : 1);
+            int keyEnd = template.indexOf(property ? "}}" : "}", keyStart);
+            if (keyEnd == -1) {
+                break;
+            }
+            if (index > literalStart) {
+                segmentKinds.add(LITERAL);
+                segmentValues.add(template.substring(literalStart, index));
+            }
+            segmentKinds.add(property ? PROPERTY : VARIABLE);
+            segmentValues.add(template.substring(keyStart, keyEnd));
+            index = keyEnd + (property ? 2 : 1);
+            literalStart = index;
+        }
+        if (literalStart < template.length()) {
+            segmentKinds.add(LITERAL);
+            segmentValues.add(template.substring(literalStart));
+        }
+        kinds = new byte[segmentKinds.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = segmentKinds.get(i);
+        }
+        values = segmentValues.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the parsed template of the given endpoint string, parsing it on first use.
+     *
+     * @param template the endpoint string
+     * @return the parsed template
+     */
+    public static EndpointTemplate compile(String template) {
+        EndpointTemplate endpointTemplate = TEMPLATES.get(template);
+        return endpointTemplate != null ? endpointTemplate : TEMPLATES.computeIfAbsent(template, EndpointTemplate::new);
+    }
+
+    /**
+     * Returns the endpoint string the template was parsed from.
+     *
+     * @return the endpoint string
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Renders the template with the config properties and the data store.
+     *
+     * @param configLoader     the config used to resolve '{{key}}' placeholders
+     * @param dataStoreManager the data store used to resolve '{key}' placeholders
+     * @return the resolved endpoint
+     * @throws IllegalArgumentException if a placeholder cannot be resolved
+     */
+    public String render(ConfigLoader configLoader, DataStoreManager dataStoreManager) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return renderTo(buffer, configLoader, dataStoreManager).toString();
+    }
+
+    /**
+     * Renders the template with the config properties and the data store into the given buffer.
+     *
+     * @param buffer           the buffer to append the resolved endpoint to
+     * @param configLoader     the config used to resolve '{{key}}' placeholders
+     * @param dataStoreManager the data store used to resolve '{key}' placeholders
+     * @return the given buffer
+     * @throws IllegalArgumentException if a placeholder cannot be resolved
+     */
+    public StringBuilder renderTo(StringBuilder buffer, ConfigLoader configLoader, DataStoreManager dataStoreManager) {
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case PROPERTY:
+                    buffer.append(configLoader.getRequiredProperty(values[i]));
+                    break;
+                case VARIABLE:
+                    Object value = dataStoreManager.getValue(values[i]);
+                    if (value == null) {
+                        throw new IllegalArgumentException("No replacement found for key: " + values[i]);
+                    }
+                    buffer.append(value);
+                    break;
+                default:
+                    buffer.append(values[i]);
+            }
+        }
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -0,0 +1,196 @@
+package com.spotify.codeless.support;
+
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * This class caches the responses of setup requests for the whole run, so identical test data is created only once.
+ * Fixtures are keyed by the request (e.g. method, resolved endpoint and hash of the body). When scenarios running in parallel
+ * request the same fixture, only the first one sends the request and the others wait for its response.
+ * Each scenario has its own instance, which holds references to the fixtures it uses until the scenario ends;
+ * the fixtures themselves are shared by all instances and cleaned up at the end of the run.
+ * When the cache is disabled, the fixtures are created by each scenario and cleaned up at the end of the scenario instead.
+ */
+public class FixtureCache {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FixtureCache.class);
+
+    /**
+     * The fixtures of the run, keyed by request.
+     */
+    private static final ConcurrentMap<String, Fixture> fixtures = new ConcurrentHashMap<>();
+
+    /**
+     * The fixtures referenced by the scenario, in the order they were acquired.
+     */
+    private final List<Fixture> acquiredFixtures = new ArrayList<>();
+
+    /**
+     * The cleanups of the fixtures created by the scenario without the cache, in the order they were registered.
+     */
+    private final List<Runnable> scenarioCleanups = new ArrayList<>();
+
+    /**
+     * Returns the response of the fixture with the given key, creating the fixture if it does not exist yet.
+     * If another scenario is creating the same fixture, waits for its response instead of sending the request again.
+     * A failed creation is not cached, so the next scenario retries it.
+     *
+     * @param key     The key of the fixture.
+     * @param creator The request creating the fixture.
+     * @return The response of the request creating the fixture.
+     */
+    public Response acquire(String key, Supplier<Response> creator) {
+        Fixture fixture = fixtures.computeIfAbsent(key, Fixture::new);
+        fixture.references.incrementAndGet();
+        fixture.uses.incrementAndGet();
+        acquiredFixtures.add(fixture);
+        if (fixture.creating.compareAndSet(false, true)) {
+            LOGGER.info("Creating fixture: '{}'", key);
+            try {
+                fixture.response.complete(creator.get());
+            } catch (RuntimeException | Error e) {
+                fixtures.remove(key, fixture);
+                fixture.response.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            LOGGER.info("Reusing fixture: '{}'", key);
+        }
+        try {
+            return fixture.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Registers the cleanup of the fixture acquired last by the scenario, run once at the end of the run.
+     * Every scenario sharing the fixture registers it, the first registration is kept.
+     *
+     * @param cleanup The cleanup, e.g. a request deleting the created data.
+     * @throws IllegalStateException If the scenario has not acquired any fixture.
+     */
+    public void registerCleanup(Runnable cleanup) {
+        if (acquiredFixtures.isEmpty()) {
+            throw new IllegalStateException("No cached fixture to clean up, a cacheable request step must come first");
+        }
+        acquiredFixtures.get(acquiredFixtures.size() - 1).cleanup.compareAndSet(null, cleanup);
+    }
+
+    /**
+     * Registers the cleanup of a fixture created by the scenario without the cache, run once at the end of the scenario.
+     *
+     * @param cleanup The cleanup, e.g. a request deleting the created data.
+     */
+    public void registerScenarioCleanup(Runnable cleanup) {
+        scenarioCleanups.add(cleanup);
+    }
+
+    /**
+     * Runs the cleanups registered by the scenario in reverse order and releases the references of the scenario to its fixtures,
+     * at the end of the scenario.
+     */
+    public void releaseAll() {
+        for (int i = scenarioCleanups.size() - 1; i >= 0; i--) {
+            try {
+                scenarioCleanups.get(i).run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to clean up fixture of the scenario", e);
+            }
+        }
+        scenarioCleanups.clear();
+        for (Fixture fixture : acquiredFixtures) {
+            fixture.references.decrementAndGet();
+        }
+        acquiredFixtures.clear();
+    }
+
+    /**
+     * Runs the cleanup of all fixtures and removes them, at the end of the run.
+     * Fixtures still referenced by a scenario are cleaned up as well, with a warning.
+     */
+    public static void cleanUp() {
+        LOGGER.info("Cleaning up {} fixtures", fixtures.size());
+        for (Fixture fixture : fixtures.values()) {
+            if (fixture.references.get() > 0) {
+                LOGGER.warn("Fixture '{}' is still referenced by {} scenario(s)", fixture.key, fixture.references.get());
+            }
+            LOGGER.info("Fixture '{}' was used by {} scenario(s)", fixture.key, fixture.uses.get());
+            Runnable cleanup = fixture.cleanup.get();
+            if (cleanup != null && !fixture.response.isCompletedExceptionally()) {
+                try {
+                    cleanup.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to clean up fixture: '{}'", fixture.key, e);
+                }
+            }
+        }
+        fixtures.clear();
+    }
+
+    /**
+     * A cached fixture: the response of the request creating it, its references and its cleanup.
+     */
+    private static final class Fixture {
+
+        /**
+         * The key of the fixture.
+         */
+        private final String key;
+
+        /**
+         * The response of the request creating the fixture, completed once the request has finished.
+         */
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
+
+        /**
+         * Whether a scenario has started to create the fixture.
+         */
+        private final AtomicBoolean creating = new AtomicBoolean();
+
+        /**
+         * Number of running scenarios using the fixture.
+         */
+        private final AtomicInteger references = new AtomicInteger();
+
+        /**
+         * Number of scenarios that have used the fixture.
+         */
+        private final AtomicInteger uses = new AtomicInteger();
+
+        /**
+         * The cleanup run at the end of the run, or null if none is registered.
+         */
+        private final AtomicReference<Runnable> cleanup = new AtomicReference<>();
+
+        /**
+         * Constructor to initialize the key of the fixture.
+         *
+         * @param key The key of the fixture.
+         */
+        private Fixture(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.spotify.codeless.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class caches compiled JSON schema files, so each schema is read and compiled once for the whole run.
+ * Compiled schemas are immutable and shared by all scenarios, including the scenarios running in parallel.
+ */
+public class JsonSchemaCache {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaCache.class);
+
+    /**
+     * The object mapper used to parse the schema files.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The factory compiling the schemas.
+     */
+    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.byDefault();
+
+    /**
+     * The compiled schemas, keyed by absolute file path.
+     */
+    private final ConcurrentMap<Path, JsonSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the compiled schema of a file, reading and compiling the file on first use.
+     *
+     * @param schemaFilePath the path of the JSON schema file
+     * @return the compiled schema
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid JSON schema
+     */
+    public JsonSchema getSchema(String schemaFilePath) {
+        Path path = Paths.get(schemaFilePath).toAbsolutePath().normalize();
+        JsonSchema schema = schemas.get(path);
+        return schema != null ? schema : schemas.computeIfAbsent(path, this::compile);
+    }
+
+    /**
+     * Validates a parsed JSON document against the schema of a file.
+     * The full validation report is only built if the document is invalid.
+     *
+     * @param schemaFilePath the path of the JSON schema file
+     * @param document       the parsed JSON document
+     * @return the validation errors, empty if the document matches the schema
+     */
+    public List<String> validate(String schemaFilePath, JsonNode document) {
+        JsonSchema schema = getSchema(schemaFilePath);
+        List<String> errors = new ArrayList<>();
+        try {
+            if (schema.validInstance(document)) {
+                return errors;
+            }
+            ProcessingReport report = schema.validate(document, true);
+            for (ProcessingMessage message : report) {
+                if (message.getLogLevel() == LogLevel.ERROR || message.getLogLevel() == LogLevel.FATAL) {
+                    JsonNode pointer = message.asJson().path("instance").path("pointer");
+                    errors.add("'" + pointer.asText() + "': " + message.getMessage());
+                }
+            }
+        } catch (ProcessingException e) {
+            throw new IllegalArgumentException("Failed to validate against JSON schema: " + schemaFilePath, e);
+        }
+        return errors;
+    }
+
+    /**
+     * Reads and compiles a JSON schema file.
+     *
+     * @param path the absolute path of the JSON schema file
+     * @return the compiled schema
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid JSON schema
+     */
+    private JsonSchema compile(Path path) {
+        LOGGER.info("Compiling JSON schema: '{}'", path);
+        try {
+            return schemaFactory.getJsonSchema(OBJECT_MAPPER.readTree(path.toFile()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JSON schema: " + path, e);
+        } catch (ProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON schema: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.spotify.codeless.support;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class caches parsed JSON template files, so request bodies are built without reading and parsing the file every time.
+ * A cached template is re-read when the modification time of its file changes. When the cache is full, the least recently used
+ * template is evicted. Callers always get a deep copy, which they can modify without affecting the cached template.
+ */
+public class JsonTemplateCache {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonTemplateCache.class);
+
+    /**
+     * The maximum number of cached templates.
+     */
+    private final int maxSize;
+
+    /**
+     * The JSON provider used to parse the template files.
+     */
+    private final JsonProvider jsonProvider;
+
+    /**
+     * The cached templates, keyed by absolute file path.
+     */
+    private final ConcurrentMap<Path, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new JsonTemplateCache.
+     *
+     * @param maxSize      the maximum number of cached templates
+     * @param jsonProvider the JSON provider used to parse the template files
+     */
+    public JsonTemplateCache(int maxSize, JsonProvider jsonProvider) {
+        this.maxSize = maxSize;
+        this.jsonProvider = jsonProvider;
+    }
+
+    /**
+     * Returns a deep copy of the parsed JSON template file, reading and parsing the file only if it is not cached or has changed.
+     *
+     * @param jsonFilePath the path of the JSON file
+     * @return a copy of the JSON document that can be modified by the caller
+     * @throws IOException if the file cannot be read
+     */
+    public Object getCopy(String jsonFilePath) throws IOException {
+        Path path = Paths.get(jsonFilePath).toAbsolutePath().normalize();
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+        CachedTemplate template = templates.get(path);
+        if (template == null || !template.lastModifiedTime.equals(lastModifiedTime)) {
+            LOGGER.info("Parsing JSON template: '{}'", path);
+            String jsonString = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            template = new CachedTemplate(lastModifiedTime, jsonProvider.parse(jsonString));
+            templates.put(path, template);
+            evictIfFull();
+        }
+        template.lastAccessNanos = System.nanoTime();
+        return deepCopy(template.document);
+    }
+
+    /**
+     * Evicts least recently used templates until the cache holds no more than the maximum number of templates.
+     */
+    private void evictIfFull() {
+        while (templates.size() > maxSize) {
+            Path leastRecentlyUsed = null;
+            long leastRecentlyUsedNanos = Long.MAX_VALUE;
+            for (Map.Entry<Path, CachedTemplate> entry : templates.entrySet()) {
+                if (entry.getValue().lastAccessNanos < leastRecentlyUsedNanos) {
+                    leastRecentlyUsed = entry.getKey();
+                    leastRecentlyUsedNanos = entry.getValue().lastAccessNanos;
+                }
+            }
+            if (leastRecentlyUsed == null) {
+                return;
+            }
+            templates.remove(leastRecentlyUsed);
+        }
+    }
+
+    /**
+     * Copies a JSON document made of maps, lists and immutable values.
+     *
+     * @param value the JSON document or value to be copied
+     * @return the copy
+     */
+    @SuppressWarnings("unchecked")
+    private static Object deepCopy(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) value;
+            Map<String, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(deepCopy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * A parsed template together with the modification time of its file.
+     */
+    private static final class CachedTemplate {
+
+        /**
+         * The modification time of the file when it was parsed.
+         */
+        private final FileTime lastModifiedTime;
+
+        /**
+         * The parsed JSON document, never handed out directly.
+         */
+        private final Object document;
+
+        /**
+         * The time in nanoseconds the template was last used.
+         */
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        /**
+         * Constructs a new CachedTemplate.
+         *
+         * @param lastModifiedTime the modification time of the file
+         * @param document         the parsed JSON document
+         */
+        private CachedTemplate(FileTime lastModifiedTime, Object document) {
+            this.lastModifiedTime = lastModifiedTime;
+            this.document = document;
+        }
+    }
+}
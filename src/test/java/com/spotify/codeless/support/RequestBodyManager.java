@@ -1,15 +1,18 @@
 package com.spotify.codeless.support;
 
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.PathNotFoundException;
 
+import commons.logging.LogArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class manages the request body.
@@ -29,6 +32,27 @@ public class RequestBodyManager {
      */
     private static final Configuration conf = Configuration.defaultConfiguration().addOptions(Option.DEFAULT_PATH_LEAF_TO_NULL);
 
+    /**
+     * The configuration used to update a JSON document with a data table. It uses the default settings, so reading a key
+     * that is not in the document throws a PathNotFoundException instead of returning null.
+     */
+    private static final Configuration updateConf = Configuration.defaultConfiguration();
+
+    /**
+     * The maximum number of parsed JSON template files kept in memory.
+     */
+    private static final int TEMPLATE_CACHE_SIZE = 256;
+
+    /**
+     * Cache of the parsed JSON template files, shared by all scenarios.
+     */
+    private static final JsonTemplateCache templateCache = new JsonTemplateCache(TEMPLATE_CACHE_SIZE, conf.jsonProvider());
+
+    /**
+     * Cache of the compiled JsonPath expressions, keyed by expression and shared by all scenarios.
+     */
+    private static final ConcurrentMap<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+
     /**
      * Validates the size of the table.
      *
@@ -42,17 +66,16 @@ public class RequestBodyManager {
     }
 
     /**
-     * Reads a JSON document from a file.
+     * Reads a JSON document from a file. The file is parsed once and cached, every call returns a copy that can be modified.
      *
      * @param jsonFilePath The path of the JSON file.
      * @return The JSON document.
      */
     public Object readJsonFromFile(String jsonFilePath) {
-        LOGGER.info("Reading JSON file: '{}'", jsonFilePath);
+        LOGGER.debug("Reading JSON file: '{}'", jsonFilePath);
         Object document = null;
         try {
-            String jsonString = new String(Files.readAllBytes(Paths.get(jsonFilePath)));
-            document = conf.defaultConfiguration().jsonProvider().parse(jsonString);
+            document = templateCache.getCopy(jsonFilePath);
         } catch (Exception e) {
             LOGGER.error("Failed to read JSON file: '{}'", jsonFilePath, e);
         }
@@ -61,25 +84,43 @@ public class RequestBodyManager {
 
     /**
      * Updates a JSON obj with a data table.
+     * All columns are read and written through one DocumentContext, using JsonPath expressions compiled once per key.
+     * Every column must name a key of the JSON obj, so a misspelled column fails instead of adding a field to the body.
      *
      * @param obj The JSON obj to be updated.
      * @param table    The data table.
+     * @throws IllegalArgumentException If a column names a key that is not in the JSON obj.
      */
     public void updateJsonWithDataTable(Object obj, List<List<String>> table) {
-        LOGGER.info("Updating JSON: '{}' with DataTable", obj.toString());
-        for (int i = 0; i < table.get(0).size(); i++) {
-            String key = table.get(0).get(i);
-            String value = table.get(1).get(i);
+        LOGGER.debug("Updating JSON: '{}' with DataTable", LogArguments.abbreviate(obj));
+        DocumentContext document = JsonPath.using(updateConf).parse(obj);
+        List<String> keys = table.get(0);
+        List<String> values = table.get(1);
+        for (int i = 0; i < keys.size(); i++) {
+            JsonPath path = compilePath(keys.get(i));
             try {
-                Object existingValue = JsonPath.read(obj, key);
-                Object newValue = determineNewValue(existingValue, value);
-                JsonPath.parse(obj).set(key, newValue);
+                Object existingValue = document.read(path);
+                Object newValue = determineNewValue(existingValue, values.get(i));
+                document.set(path, newValue);
+            } catch (PathNotFoundException e) {
+                throw new IllegalArgumentException("DataTable column '" + keys.get(i) + "' is not a key of the request body", e);
             } catch (Exception e) {
                 LOGGER.error("Failed to update JSON", e);
                 throw new RuntimeException(e);
             }
         }
-        LOGGER.info("Updated JSON: '{}'", obj);
+        LOGGER.debug("Updated JSON: '{}'", LogArguments.abbreviate(obj));
+    }
+
+    /**
+     * Returns the compiled JsonPath expression of a key, compiling it on first use.
+     *
+     * @param key The JsonPath expression.
+     * @return The compiled JsonPath expression.
+     */
+    private static JsonPath compilePath(String key) {
+        JsonPath path = compiledPaths.get(key);
+        return path != null ? path : compiledPaths.computeIfAbsent(key, k -> JsonPath.compile(k));
     }
 
     /**
@@ -90,53 +131,11 @@ public class RequestBodyManager {
      * @return The determined new value.
      */
     private Object determineNewValue(Object existingValue, String value) {
-        LOGGER.info("Determine new value");
         Object newValue = value;
         if (existingValue != null) {
-            newValue = parseValueBasedOnExistingType(existingValue, value);
+            newValue = ValueCoercion.coerceToTypeOf(existingValue, value);
         } else {
-            newValue = parseValueBasedOnValue(value);
-        }
-        return newValue;
-    }
-
-    /**
-     * Parses a value based on the existing type of a key in a JSON object.
-     *
-     * @param existingValue The existing value.
-     * @param value         The value to be parsed.
-     * @return The parsed value.
-     */
-    private Object parseValueBasedOnExistingType(Object existingValue, String value) {
-        LOGGER.info("Parse value based on existing type");
-        Object newValue = value;
-        if (existingValue instanceof Boolean) {
-            newValue = Boolean.parseBoolean(value);
-        } else if (existingValue instanceof Integer) {
-            newValue = Integer.parseInt(value);
-        } else if (existingValue instanceof Double) {
-            newValue = Double.parseDouble(value);
-        }
-        return newValue;
-    }
-
-    /**
-     * Parses a value based on the value itself.
-     *
-     * @param value The value to be parsed.
-     * @return The parsed value.
-     */
-    private Object parseValueBasedOnValue(String value) {
-        LOGGER.info("Parse value based on value: '{}'", value);
-        Object newValue = value;
-        if ("true".equals(value) || "false".equals(value)) {
-            newValue = Boolean.parseBoolean(value);
-        } else if (value.matches("\\d+")) {
-            newValue = Integer.parseInt(value);
-        } else if (value.matches("\\d+\\.\\d+")) {
-            newValue = Double.parseDouble(value);
-        } else if (value.equals("null")) {
-            newValue = null;
+            newValue = ValueCoercion.coerce(value);
         }
         return newValue;
     }
@@ -3,6 +3,7 @@ package com.spotify.codeless.support;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import commons.logging.LogArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +41,7 @@ public class RequestBodyManagerWithoutJsonPath {
      * @return The JSON object read from the file.
      */
     public JSONObject readJsonFromFile(String jsonFilePath) {
-        LOGGER.info("Reading JSON file: '{}'", jsonFilePath);
+        LOGGER.debug("Reading JSON file: '{}'", jsonFilePath);
         JSONObject json = null;
         try {
             String jsonString = new String(Files.readAllBytes(Paths.get(jsonFilePath)));
@@ -58,7 +59,7 @@ public class RequestBodyManagerWithoutJsonPath {
      * @param table The table containing the data.
      */
     public void updateJsonWithDataTable(JSONObject json, List<List<String>> table) {
-        LOGGER.info("Updating JSON: '{}' with DataTable", json.toString());
+        LOGGER.debug("Updating JSON: '{}' with DataTable", LogArguments.abbreviate(json));
         for (int i = 0; i < table.get(0).size(); i++) {
             String key = table.get(0).get(i);
             String value = table.get(1).get(i);
@@ -69,7 +70,7 @@ public class RequestBodyManagerWithoutJsonPath {
                 throw new RuntimeException(e);
             }
         }
-        LOGGER.info("Updated JSON: '{}'", json);
+        LOGGER.debug("Updated JSON: '{}'", LogArguments.abbreviate(json));
     }
 
     /**
@@ -81,7 +82,6 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private void updateJsonValue(JSONObject json, String key, String value) throws JSONException {
-        LOGGER.info("Updating JSON value");
         if (key.contains(".")) {
             updateNestedJsonValue(json, key, value);
         } else {
@@ -98,7 +98,6 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private void updateNestedJsonValue(JSONObject json, String key, String value) throws JSONException {
-        LOGGER.info("Updating nested JSON value");
         String[] parts = key.split("\\.");
         JSONObject lastNestedJson = json;
         for (int j = 0; j < parts.length - 1; j++) {
@@ -116,7 +115,6 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private JSONObject getNestedJson(JSONObject json, String key) throws JSONException {
-        LOGGER.info("Returning nested JSON object");
         if (key.matches(".+\\[\\d+\\]$")) {
             return getJsonFromJsonArray(json, key);
         } else {
@@ -133,7 +131,6 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private JSONObject getJsonFromJsonArray(JSONObject json, String key) throws JSONException {
-        LOGGER.info("Returning JSON object from JSONArray");
         String arrayKey = key.substring(0, key.indexOf('['));
         int index = Integer.parseInt(key.substring(key.indexOf('[') + 1, key.indexOf(']')));
         if (!json.has(arrayKey)) {
@@ -155,7 +152,6 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private void putValueInJson(JSONObject json, String key, String value) throws JSONException {
-        LOGGER.info("Put value in JSON");
         Object newValue = determineNewValue(json, key, value);
         json.put(key, newValue);
     }
@@ -170,55 +166,11 @@ public class RequestBodyManagerWithoutJsonPath {
      * @throws JSONException If the key is not found in the JSON object.
      */
     private Object determineNewValue(JSONObject json, String key, String value) throws JSONException {
-        LOGGER.info("Determine new value");
         Object newValue = value;
         if (json.has(key)) {
-            newValue = parseValueBasedOnExistingType(json, key, value);
+            newValue = ValueCoercion.coerceToTypeOf(json.get(key), value);
         } else {
-            newValue = parseValueBasedOnValue(value);
-        }
-        return newValue;
-    }
-
-    /**
-     * Parses a value based on the existing type of a key in a JSON object.
-     *
-     * @param json  The JSON object.
-     * @param key   The key of the value to be parsed.
-     * @param value The value to be parsed.
-     * @return The parsed value.
-     * @throws JSONException If the key is not found in the JSON object.
-     */
-    private Object parseValueBasedOnExistingType(JSONObject json, String key, String value) throws JSONException {
-        LOGGER.info("Parse value based on existing type. Key: '{}', Value: '{}'", key, value);
-        Object newValue = value;
-        if (json.get(key) instanceof Boolean) {
-            newValue = Boolean.parseBoolean(value);
-        } else if (json.get(key) instanceof Integer) {
-            newValue = Integer.parseInt(value);
-        } else if (json.get(key) instanceof Double) {
-            newValue = Double.parseDouble(value);
-        }
-        return newValue;
-    }
-
-    /**
-     * Parses a value based on the value itself.
-     *
-     * @param value The value to be parsed.
-     * @return The parsed value.
-     */
-    private Object parseValueBasedOnValue(String value) {
-        LOGGER.info("Parse value based on value: '{}'", value);
-        Object newValue = value;
-        if ("true".equals(value) || "false".equals(value)) {
-            newValue = Boolean.parseBoolean(value);
-        } else if (value.matches("\\d+")) {
-            newValue = Integer.parseInt(value);
-        } else if (value.matches("\\d+\\.\\d+")) {
-            newValue = Double.parseDouble(value);
-        } else if (value.equals("null")) {
-            newValue = null;
+            newValue = ValueCoercion.coerce(value);
         }
         return newValue;
     }
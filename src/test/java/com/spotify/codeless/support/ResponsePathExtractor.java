@@ -0,0 +1,469 @@
+package com.spotify.codeless.support;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class extracts the values of several response paths in a single streaming pass over the response body.
+ * Only simple paths made of field names and non-negative indexes (e.g. 'owner.id' or 'tracks.items[0].name') are streamed;
+ * values of subtrees that are not requested are skipped without being materialized, and parsing stops once all paths are found.
+ * Any other path, or a path whose structure does not match the body (e.g. a field of a list), is evaluated with Rest Assured's
+ * GPath, so the results are the same as those of 'response.getBody().path(path)'.
+ * The same simple paths can also be read from a response body already parsed into a tree, without parsing it again.
+ * The pass streams over the bytes of the body, which Rest Assured has already buffered completely in the Response:
+ * it saves building the parsed values of the whole body, not the memory of the body itself.
+ */
+public final class ResponsePathExtractor {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponsePathExtractor.class);
+
+    /**
+     * The factory creating the streaming parsers.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Marker of paths that cannot be streamed.
+     */
+    private static final Object[] UNSUPPORTED = new Object[0];
+
+    /**
+     * Cache of the parsed path segments, keyed by path. Field names are Strings, indexes are Integers.
+     */
+    private static final ConcurrentMap<String, Object[]> compiledPaths = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ResponsePathExtractor() {
+    }
+
+    /**
+     * Extracts the values of the given paths from the response body.
+     *
+     * @param response The response from which the values are extracted.
+     * @param paths    The paths to be extracted.
+     * @return The extracted values keyed by path; the value is null if the path is not found.
+     */
+    public static Map<String, Object> extract(Response response, Collection<String> paths) {
+        LOGGER.debug("Extracting {} response body paths", paths.size());
+        Map<String, Object> values = new HashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        Node root = new Node();
+        for (String path : paths) {
+            Object[] segments = compilePath(path);
+            if (segments == UNSUPPORTED) {
+                unresolved.add(path);
+            } else {
+                root.add(path, segments, 0);
+            }
+        }
+        if (!root.paths.isEmpty()) {
+            try (InputStream inputStream = response.asInputStream(); JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+                if (parser.nextToken() != null) {
+                    new Walk(values, unresolved, root.paths.size()).visit(parser, root);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to stream response body, falling back to GPath", e);
+                unresolved.addAll(root.paths);
+            }
+        }
+        for (String path : unresolved) {
+            values.put(path, response.getBody().path(path));
+        }
+        return values;
+    }
+
+    /**
+     * Extracts the values of the given paths from a response body already parsed into a tree.
+     * Simple paths are read from the tree, any other path is evaluated with GPath as in {@link #extract(Response, Collection)}.
+     *
+     * @param body     The parsed response body.
+     * @param response The response, used for the paths that cannot be read from the tree.
+     * @param paths    The paths to be extracted.
+     * @return The extracted values keyed by path; the value is null if the path is not found.
+     */
+    public static Map<String, Object> extract(JsonNode body, Response response, Collection<String> paths) {
+        LOGGER.debug("Extracting {} response body paths from the parsed body", paths.size());
+        Map<String, Object> values = new HashMap<>();
+        for (String path : paths) {
+            Object[] segments = compilePath(path);
+            boolean resolved = segments != UNSUPPORTED;
+            JsonNode node = body;
+            for (int i = 0; resolved && i < segments.length && node != null && !node.isNull() && !node.isMissingNode(); i++) {
+                if (segments[i] instanceof String && node.isObject()) {
+                    node = node.get((String) segments[i]);
+                } else if (segments[i] instanceof Integer && node.isArray()) {
+                    node = node.get((Integer) segments[i]);
+                } else {
+                    // GPath collects a field over all list elements, and fails on a child of a scalar
+                    resolved = false;
+                }
+            }
+            values.put(path, resolved ? toValue(node) : response.getBody().path(path));
+        }
+        return values;
+    }
+
+    /**
+     * Converts a node of a parsed body to a value with the same types as GPath, as the streaming pass reads it.
+     *
+     * @param node The node, or null if the path is not found.
+     * @return The value.
+     */
+    private static Object toValue(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        switch (node.getNodeType()) {
+            case OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                node.fields().forEachRemaining(field -> map.put(field.getKey(), toValue(field.getValue())));
+                return map;
+            case ARRAY:
+                List<Object> list = new ArrayList<>(node.size());
+                node.forEach(element -> list.add(toValue(element)));
+                return list;
+            case STRING:
+                return node.textValue();
+            case NUMBER:
+                if (node.isIntegralNumber()) {
+                    return node.canConvertToInt() ? (Object) node.intValue()
+                            : node.canConvertToLong() ? (Object) node.longValue() : (Object) node.bigIntegerValue();
+                }
+                double value = node.doubleValue();
+                return Math.abs(value) > Float.MAX_VALUE ? (Object) value : (Object) (float) value;
+            case BOOLEAN:
+                return node.booleanValue();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the segments of the given path, parsing it on first use.
+     *
+     * @param path The path to be parsed.
+     * @return The segments of the path, or UNSUPPORTED if the path cannot be streamed.
+     */
+    private static Object[] compilePath(String path) {
+        Object[] segments = compiledPaths.get(path);
+        return segments != null ? segments : compiledPaths.computeIfAbsent(path, ResponsePathExtractor::parsePath);
+    }
+
+    /**
+     * Parses a path into field names and indexes.
+     *
+     * @param path The path to be parsed.
+     * @return The segments of the path, or UNSUPPORTED if the path cannot be streamed.
+     */
+    private static Object[] parsePath(String path) {
+        List<Object> segments = new ArrayList<>();
+        if (path.isEmpty()) {
+            return UNSUPPORTED;
+        }
+        for (String part : path.split("\\.", -1)) {
+            int bracket = part.indexOf('[');
+            String name = bracket == -1 ? part : part.substring(0, bracket);
+            if (name.isEmpty() || !isPlainName(name)) {
+                return UNSUPPORTED;
+            }
+            segments.add(name);
+            while (bracket != -1) {
+                int close = part.indexOf(']', bracket);
+                if (close == -1) {
+                    return UNSUPPORTED;
+                }
+                String index = part.substring(bracket + 1, close);
+                if (index.isEmpty() || index.length() > 9 || !isDigits(index)) {
+                    return UNSUPPORTED;
+                }
+                segments.add(Integer.valueOf(index));
+                if (close == part.length() - 1) {
+                    bracket = -1;
+                } else if (part.charAt(close + 1) == '[') {
+                    bracket = close + 1;
+                } else {
+                    return UNSUPPORTED;
+                }
+            }
+        }
+        return segments.toArray();
+    }
+
+    /**
+     * Checks whether a field name is a plain identifier, which GPath resolves as a property of a map.
+     *
+     * @param name The field name.
+     * @return true if the name contains only letters, digits, '_' and '$' and is not a GPath keyword.
+     */
+    private static boolean isPlainName(String name) {
+        if (Character.isDigit(name.charAt(0)) || name.equals("size") || name.equals("class")) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a string consists of ASCII digits only.
+     *
+     * @param value The string to be checked.
+     * @return true if the string consists of digits only.
+     */
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node of the tree of requested paths.
+     */
+    private static final class Node {
+
+        /**
+         * The child nodes of field segments.
+         */
+        private final Map<String, Node> fields = new HashMap<>();
+
+        /**
+         * The child nodes of index segments.
+         */
+        private final Map<Integer, Node> indexes = new HashMap<>();
+
+        /**
+         * The paths ending at this node.
+         */
+        private final List<String> terminals = new ArrayList<>();
+
+        /**
+         * All paths ending at or below this node.
+         */
+        private final List<String> paths = new ArrayList<>();
+
+        /**
+         * Adds a path below this node.
+         *
+         * @param path     The path.
+         * @param segments The segments of the path.
+         * @param from     The index of the first segment below this node.
+         */
+        private void add(String path, Object[] segments, int from) {
+            paths.add(path);
+            if (from == segments.length) {
+                terminals.add(path);
+                return;
+            }
+            Object segment = segments[from];
+            Node child = segment instanceof String
+                    ? fields.computeIfAbsent((String) segment, k -> new Node())
+                    : indexes.computeIfAbsent((Integer) segment, k -> new Node());
+            child.add(path, segments, from + 1);
+        }
+    }
+
+    /**
+     * A single pass over the response body.
+     */
+    private static final class Walk {
+
+        /**
+         * The extracted values keyed by path.
+         */
+        private final Map<String, Object> values;
+
+        /**
+         * The paths to be evaluated with GPath.
+         */
+        private final Set<String> unresolved;
+
+        /**
+         * The number of streamed paths not settled yet.
+         */
+        private int remaining;
+
+        /**
+         * Constructs a new Walk.
+         *
+         * @param values     The extracted values keyed by path.
+         * @param unresolved The paths to be evaluated with GPath.
+         * @param remaining  The number of streamed paths.
+         */
+        private Walk(Map<String, Object> values, Set<String> unresolved, int remaining) {
+            this.values = values;
+            this.unresolved = unresolved;
+            this.remaining = remaining;
+        }
+
+        /**
+         * Visits the value at the current token of the parser, which is consumed up to its last token.
+         *
+         * @param parser The parser positioned at the first token of the value.
+         * @param node   The node of the requested paths matching the value.
+         * @throws IOException if the body cannot be parsed.
+         */
+        private void visit(JsonParser parser, Node node) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (!node.terminals.isEmpty() || !isContainer(token)) {
+                // The value is requested as a whole, or a child is requested on a scalar
+                resolve(readValue(parser), node);
+                remaining -= node.paths.size();
+                return;
+            }
+            if (token == JsonToken.START_OBJECT) {
+                if (!node.indexes.isEmpty()) {
+                    settleUnresolved(node.indexes.values());
+                }
+                while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Node child = node.fields.get(parser.currentName());
+                    parser.nextToken();
+                    if (child == null) {
+                        parser.skipChildren();
+                    } else {
+                        visit(parser, child);
+                    }
+                }
+            } else {
+                if (!node.fields.isEmpty()) {
+                    // GPath collects a field over all list elements
+                    settleUnresolved(node.fields.values());
+                }
+                int index = 0;
+                while (remaining > 0 && parser.nextToken() != JsonToken.END_ARRAY) {
+                    Node child = node.indexes.get(index++);
+                    if (child == null) {
+                        parser.skipChildren();
+                    } else {
+                        visit(parser, child);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Resolves the paths of a node and its children from an already materialized value.
+         *
+         * @param value The value matching the node.
+         * @param node  The node of the requested paths.
+         */
+        private void resolve(Object value, Node node) {
+            for (String path : node.terminals) {
+                values.put(path, value);
+            }
+            for (Map.Entry<String, Node> field : node.fields.entrySet()) {
+                if (value instanceof Map) {
+                    resolve(((Map<?, ?>) value).get(field.getKey()), field.getValue());
+                } else if (value != null) {
+                    unresolved.addAll(field.getValue().paths);
+                }
+            }
+            for (Map.Entry<Integer, Node> index : node.indexes.entrySet()) {
+                if (value instanceof List) {
+                    List<?> list = (List<?>) value;
+                    resolve(index.getKey() < list.size() ? list.get(index.getKey()) : null, index.getValue());
+                } else if (value != null) {
+                    unresolved.addAll(index.getValue().paths);
+                }
+            }
+        }
+
+        /**
+         * Hands the paths below the given nodes over to GPath.
+         *
+         * @param nodes The nodes whose paths cannot be streamed.
+         */
+        private void settleUnresolved(Collection<Node> nodes) {
+            for (Node node : nodes) {
+                unresolved.addAll(node.paths);
+                remaining -= node.paths.size();
+            }
+        }
+
+        /**
+         * Checks whether a token starts an object or a list.
+         *
+         * @param token The token.
+         * @return true if the token starts an object or a list.
+         */
+        private static boolean isContainer(JsonToken token) {
+            return token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+        }
+
+        /**
+         * Reads the value at the current token with the same types as GPath: Integer, Long or BigInteger for integers,
+         * Float or Double for decimals, and maps and lists for objects and arrays.
+         *
+         * @param parser The parser positioned at the first token of the value.
+         * @return The value.
+         * @throws IOException if the body cannot be parsed.
+         */
+        private static Object readValue(JsonParser parser) throws IOException {
+            switch (parser.currentToken()) {
+                case START_OBJECT:
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.currentName();
+                        parser.nextToken();
+                        map.put(name, readValue(parser));
+                    }
+                    return map;
+                case START_ARRAY:
+                    List<Object> list = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        list.add(readValue(parser));
+                    }
+                    return list;
+                case VALUE_STRING:
+                    return parser.getText();
+                case VALUE_NUMBER_INT:
+                    switch (parser.getNumberType()) {
+                        case INT:
+                            return parser.getIntValue();
+                        case LONG:
+                            return parser.getLongValue();
+                        default:
+                            return parser.getBigIntegerValue();
+                    }
+                case VALUE_NUMBER_FLOAT:
+                    double value = parser.getDoubleValue();
+                    return Math.abs(value) > Float.MAX_VALUE ? (Object) value : (Object) (float) value;
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.spotify.codeless.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * This class converts the text of DataTable cells to JSON values: booleans, null, and numbers of any size.
+ * The text is classified by a single scan over its characters instead of regular expressions, and whole numbers are
+ * returned as the smallest of Integer, Long and BigInteger that holds them, so large numbers are neither truncated nor rejected.
+ */
+public final class ValueCoercion {
+
+    /**
+     * Maximum number of digits of a whole number that always fits into a long.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Maximum number of digits of a decimal number that a double holds exactly.
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+
+    /**
+     * The kinds of number recognized by the scanner.
+     */
+    private enum NumberKind {
+
+        /**
+         * Not a number, e.g. a text value.
+         */
+        NONE,
+
+        /**
+         * A whole number, e.g. '-42' or '+42'.
+         */
+        INTEGER,
+
+        /**
+         * A decimal number, e.g. '12.5'.
+         */
+        DECIMAL
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private ValueCoercion() {}
+
+    /**
+     * Converts a value based on the value itself: 'true' and 'false' to a Boolean, 'null' to null,
+     * whole numbers to an Integer, Long or BigInteger, decimal numbers to a Double or, if a double cannot hold all digits, a BigDecimal.
+     * Only unsigned numbers are converted, so a value like '+15551234567' (a phone number) or '-1' stays a String.
+     * Any other value is returned unchanged.
+     *
+     * @param value The value as written in the DataTable.
+     * @return The converted value.
+     */
+    public static Object coerce(String value) {
+        switch (scanNumber(value, false)) {
+            case INTEGER:
+                return parseInteger(value);
+            case DECIMAL:
+                return parseDecimal(value);
+            default:
+                if ("true".equals(value)) {
+                    return Boolean.TRUE;
+                } else if ("false".equals(value)) {
+                    return Boolean.FALSE;
+                } else if ("null".equals(value)) {
+                    return null;
+                }
+                return value;
+        }
+    }
+
+    /**
+     * Converts a value to the type of the existing value of the same key in a JSON document.
+     * Whole numbers are widened to Long or BigInteger if they do not fit the existing type, and may have a leading '-' or '+'.
+     * Values of other types are returned unchanged.
+     *
+     * @param existingValue The existing value.
+     * @param value         The value as written in the DataTable.
+     * @return The converted value.
+     * @throws NumberFormatException If the existing value is a number and the value is not.
+     */
+    public static Object coerceToTypeOf(Object existingValue, String value) {
+        if (existingValue instanceof Boolean) {
+            return Boolean.parseBoolean(value);
+        } else if (existingValue instanceof Integer || existingValue instanceof Long || existingValue instanceof BigInteger
+                || existingValue instanceof Short || existingValue instanceof Byte) {
+            return parseInteger(value);
+        } else if (existingValue instanceof Double || existingValue instanceof Float || existingValue instanceof BigDecimal) {
+            return scanNumber(value, true) == NumberKind.NONE ? Double.parseDouble(value) : parseDecimal(value);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a whole number into the smallest of Integer, Long and BigInteger that holds it.
+     *
+     * @param text The whole number, with an optional leading '-' or '+'.
+     * @return The number.
+     * @throws NumberFormatException If the text is not a whole number.
+     */
+    public static Number parseInteger(String text) {
+        if (scanNumber(text, true) != NumberKind.INTEGER) {
+            throw new NumberFormatException("For input string: \"" + text + "\"");
+        }
+        boolean negative = text.charAt(0) == '-';
+        boolean signed = negative || text.charAt(0) == '+';
+        int digits = signed ? text.length() - 1 : text.length();
+        if (digits > MAX_LONG_DIGITS) {
+            BigInteger value = new BigInteger(text);
+            if (value.bitLength() >= Long.SIZE) {
+                return value;
+            }
+            return narrow(value.longValue());
+        }
+        long value = 0;
+        for (int i = signed ? 1 : 0; i < text.length(); i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return narrow(negative ? -value : value);
+    }
+
+    /**
+     * Parses a decimal or whole number into a Double, or into a BigDecimal if a double cannot hold all its digits.
+     *
+     * @param text The number, with an optional leading '-' or '+'.
+     * @return The number.
+     * @throws NumberFormatException If the text is not a number.
+     */
+    public static Number parseDecimal(String text) {
+        NumberKind kind = scanNumber(text, true);
+        if (kind == NumberKind.NONE) {
+            throw new NumberFormatException("For input string: \"" + text + "\"");
+        }
+        int digits = text.length() - (isSign(text.charAt(0)) ? 1 : 0) - (kind == NumberKind.DECIMAL ? 1 : 0);
+        return digits <= MAX_DOUBLE_DIGITS ? (Number) Double.parseDouble(text) : new BigDecimal(text);
+    }
+
+    /**
+     * Classifies a text as a whole number (sign? digit+), a decimal number (sign? digit+ '.' digit+) or not a number,
+     * where the sign is '-' or '+'.
+     *
+     * @param text   The text.
+     * @param signed Whether a leading sign is accepted.
+     * @return The kind of number.
+     */
+    private static NumberKind scanNumber(String text, boolean signed) {
+        int length = text.length();
+        int i = signed && length > 0 && isSign(text.charAt(0)) ? 1 : 0;
+        int integerStart = i;
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == integerStart) {
+            return NumberKind.NONE;
+        }
+        if (i == length) {
+            return NumberKind.INTEGER;
+        }
+        if (text.charAt(i) != '.') {
+            return NumberKind.NONE;
+        }
+        int fractionStart = ++i;
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i == length && i > fractionStart ? NumberKind.DECIMAL : NumberKind.NONE;
+    }
+
+    /**
+     * Checks whether a character is the sign of a number.
+     *
+     * @param c The character.
+     * @return True if the character is '-' or '+'; false otherwise.
+     */
+    private static boolean isSign(char c) {
+        return c == '-' || c == '+';
+    }
+
+    /**
+     * Checks whether a character is an ASCII digit.
+     *
+     * @param c The character.
+     * @return True if the character is between '0' and '9'; false otherwise.
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns a whole number as an Integer if it fits, or else as a Long.
+     *
+     * @param value The number.
+     * @return The Integer or Long.
+     */
+    private static Number narrow(long value) {
+        return value == (int) value ? (Number) (int) value : (Number) value;
+    }
+}
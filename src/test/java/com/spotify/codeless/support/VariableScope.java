@@ -0,0 +1,36 @@
+package com.spotify.codeless.support;
+
+/**
+ * This enum defines the scopes of the variables in the data store, as written in the optional 'scope' column of the steps.
+ */
+public enum VariableScope {
+
+    /**
+     * The variable is visible to the current scenario only.
+     */
+    SCENARIO,
+
+    /**
+     * The variable is visible to all scenarios of the run, including the scenarios running in parallel.
+     */
+    GLOBAL;
+
+    /**
+     * Returns the variable scope with the given name, ignoring case.
+     *
+     * @param name The name of the scope, e.g. 'Global', or null or empty for the scenario scope.
+     * @return The variable scope.
+     * @throws IllegalArgumentException If the name is not a variable scope.
+     */
+    public static VariableScope fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return SCENARIO;
+        }
+        for (VariableScope scope : values()) {
+            if (scope.name().equalsIgnoreCase(name.trim())) {
+                return scope;
+            }
+        }
+        throw new IllegalArgumentException("scope should be Scenario or Global");
+    }
+}
@@ -0,0 +1,150 @@
+package com.spotify.codeless.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This enum defines the types of the variables in the data store, as written in the 'variableType' column of the steps.
+ */
+public enum VariableType {
+
+    /**
+     * A true or false value.
+     */
+    BOOLEAN(Boolean.class),
+
+    /**
+     * A whole number of any size, held by the smallest of Integer, Long and BigInteger.
+     */
+    INTEGER(Integer.class, Long.class, BigInteger.class),
+
+    /**
+     * A decimal number, held as a BigDecimal. Response bodies hold decimal numbers as Float or Double, which are converted when stored.
+     */
+    DECIMAL(BigDecimal.class, Double.class, Float.class),
+
+    /**
+     * A text value.
+     */
+    STRING(String.class);
+
+    /**
+     * The variable types keyed by the usual spellings of their names, e.g. 'STRING', 'string' and 'String'.
+     */
+    private static final Map<String, VariableType> TYPES_BY_NAME = new HashMap<>();
+
+    static {
+        for (VariableType type : values()) {
+            String name = type.name();
+            TYPES_BY_NAME.put(name, type);
+            TYPES_BY_NAME.put(name.toLowerCase(), type);
+            TYPES_BY_NAME.put(name.charAt(0) + name.substring(1).toLowerCase(), type);
+        }
+    }
+
+    /**
+     * The Java types of the values.
+     */
+    private final Class<?>[] valueClasses;
+
+    /**
+     * Constructor to initialize the Java types of the values.
+     *
+     * @param valueClasses The Java types of the values.
+     */
+    VariableType(Class<?>... valueClasses) {
+        this.valueClasses = valueClasses;
+    }
+
+    /**
+     * Returns the variable type with the given name, ignoring case.
+     *
+     * @param name The name of the type, e.g. 'String'.
+     * @return The variable type.
+     * @throws IllegalArgumentException If the name is not a variable type.
+     */
+    public static VariableType fromName(String name) {
+        VariableType type = lookup(name);
+        if (type == null) {
+            throw new IllegalArgumentException("variableType should be Boolean, Integer, Decimal or String");
+        }
+        return type;
+    }
+
+    /**
+     * Returns the variable type with the given name, ignoring case.
+     * The usual spellings are found with a single map lookup, other spellings by comparing with each name.
+     *
+     * @param name The name of the type, e.g. 'String'.
+     * @return The variable type, or null if the name is not a variable type.
+     */
+    public static VariableType lookup(String name) {
+        if (name == null) {
+            return null;
+        }
+        VariableType type = TYPES_BY_NAME.get(name);
+        if (type != null) {
+            return type;
+        }
+        for (VariableType candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the given value is of this type.
+     *
+     * @param value The value.
+     * @return True if the value is of this type; false otherwise, also if the value is null.
+     */
+    public boolean isInstance(Object value) {
+        for (Class<?> valueClass : valueClasses) {
+            if (valueClass.isInstance(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Casts a value extracted from a response body to this type. Float and Double values of decimal variables are converted to a BigDecimal.
+     *
+     * @param value The value.
+     * @return The value, converted to a BigDecimal for a decimal variable and unchanged otherwise.
+     * @throws ClassCastException If the value is not of this type.
+     */
+    public Object cast(Object value) {
+        if (value != null && !isInstance(value)) {
+            throw new ClassCastException("Cannot cast " + value.getClass().getName() + " to " + this);
+        }
+        if (this == DECIMAL && (value instanceof Double || value instanceof Float)) {
+            return new BigDecimal(value.toString());
+        }
+        return value;
+    }
+
+    /**
+     * Parses a value written in a feature file. String values are returned unchanged.
+     *
+     * @param text The value as written in the feature file.
+     * @return The value of this type.
+     * @throws NumberFormatException If the type is a number and the text is not.
+     */
+    public Object parse(String text) {
+        switch (this) {
+            case BOOLEAN:
+                return Boolean.parseBoolean(text);
+            case INTEGER:
+                return ValueCoercion.parseInteger(text);
+            case DECIMAL:
+                return new BigDecimal(text);
+            default:
+                return text;
+        }
+    }
+}
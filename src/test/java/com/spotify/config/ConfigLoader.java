@@ -5,6 +5,8 @@ import commons.properties.PropertiesManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
 /**
  * This class is responsible for loading configurations from a properties file and replacing placeholders in strings with their corresponding property values.
  */
@@ -18,62 +20,52 @@ public class ConfigLoader {
     /**
      * The PropertiesManager instance used to fetch property values.
      */
-    private static PropertiesManager propertiesManager;
-
-    /**
-     * The singleton instance of the ConfigLoader class.
-     */
-    private static ConfigLoader configLoader;
+    private final PropertiesManager propertiesManager;
 
     /**
      * Private constructor to prevent instantiation of this class.
      */
-    private ConfigLoader(){}
+    private ConfigLoader(){
+        LOGGER.info("Creating instance of ConfigLoader");
+        propertiesManager = setConfig();
+    }
 
     /**
-     * Returns the singleton instance of the ConfigLoader class, creating it if necessary.
+     * Returns the singleton instance of the ConfigLoader class.
+     * The instance is created on first use by the class loader, so later calls return it without locking.
      *
      * @return the singleton instance of the ConfigLoader class
      */
-    public static synchronized ConfigLoader getInstance(){
-        if(configLoader == null){
-            LOGGER.info("Creating instance of ConfigLoader");
-            setConfig();
-            configLoader = new ConfigLoader();
-        }
-        LOGGER.info("Returning instance of ConfigLoader");
-        return configLoader;
+    public static ConfigLoader getInstance(){
+        return Holder.INSTANCE;
     }
 
     /**
      * Replaces placeholders in the given string with their corresponding property values.
      * If a placeholder's corresponding property is not found, an IllegalArgumentException is thrown.
+     * The property values are resolved when the configuration is loaded, and the result is cached for each string.
      *
      * @param str the string in which to replace placeholders
      * @return the updated string with placeholders replaced by property values
      * @throws IllegalArgumentException if a property for a placeholder is not found
      */
     public String replacePlaceholdersWithProperties(String str) {
-        LOGGER.info("Replacing placeholders with properties: '{}'", str );
-        int startIndex = str.indexOf("{{");
-        int endIndex = str.indexOf("}}");
-
-        while (startIndex != -1 && endIndex != -1) {
-            String key = str.substring(startIndex + 2, endIndex);
-            String value = propertiesManager.getProperty(key);
-
-            if (value != null) {
-                str = str.replace("{{" + key + "}}", value);
-            } else {
-                throw new IllegalArgumentException("Property not found: " + key);
-            }
+        return propertiesManager.getSnapshot().interpolate(str);
+    }
 
-            startIndex = str.indexOf("{{");
-            endIndex = str.indexOf("}}");
+    /**
+     * Returns the value of the given property.
+     *
+     * @param key the name of the property
+     * @return the property value
+     * @throws IllegalArgumentException if the property is not found
+     */
+    public String getRequiredProperty(String key) {
+        String value = propertiesManager.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Property not found: " + key);
         }
-
-        System.out.println("Updated endpoint: " + str);
-        return str;
+        return value;
     }
 
     /**
@@ -161,10 +153,360 @@ public class ConfigLoader {
     }
 
     /**
-     * Reads the configuration properties file based on the environment type provided by command-line execution.
-     * If environment type not provided by command-line execution, the default value 'config-qa' will be used.
+     * Returns the number of credential sets in the token pool from the properties file.
+     * The first credential set uses the keys client_id, client_secret, refresh_token and user_id,
+     * further sets use the same keys suffixed with their number, e.g. client_id.2.
+     *
+     * @return the number of credential sets, 1 if the property "token.pool.size" is not specified
+     */
+    public int getTokenPoolSize(){
+        return propertiesManager.getPropertyAsInt("token.pool.size", 1);
+    }
+
+    /**
+     * Returns the strategy used to hand out credentials of the token pool from the properties file.
+     *
+     * @return the token pool strategy, ROUND_ROBIN if the property "token.pool.strategy" is not specified
+     */
+    public String getTokenPoolStrategy(){
+        String prop = propertiesManager.getProperty("token.pool.strategy");
+        return prop != null ? prop : "ROUND_ROBIN";
+    }
+
+    /**
+     * Returns the client ID of the given credential set from the properties file.
+     *
+     * @param credentialNumber the number of the credential set, starting at 1
+     * @return the client ID
+     */
+    public String getClientId(int credentialNumber){
+        return getCredentialProperty("client_id", credentialNumber);
+    }
+
+    /**
+     * Returns the client secret of the given credential set from the properties file.
+     *
+     * @param credentialNumber the number of the credential set, starting at 1
+     * @return the client secret
+     */
+    public String getClientSecret(int credentialNumber){
+        return getCredentialProperty("client_secret", credentialNumber);
+    }
+
+    /**
+     * Returns the refresh token of the given credential set from the properties file.
+     *
+     * @param credentialNumber the number of the credential set, starting at 1
+     * @return the refresh token
+     */
+    public String getRefreshToken(int credentialNumber){
+        return getCredentialProperty("refresh_token", credentialNumber);
+    }
+
+    /**
+     * Returns the user ID of the given credential set from the properties file.
+     *
+     * @param credentialNumber the number of the credential set, starting at 1
+     * @return the user ID
+     */
+    public String getUserId(int credentialNumber){
+        return getCredentialProperty("user_id", credentialNumber);
+    }
+
+    /**
+     * Returns the maximum number of scenarios run at a time by the virtual thread runner.
+     * By default it matches the pooled connections per route, so the scenarios do not wait for a connection.
+     *
+     * @return the scenario concurrency, the value of "http.pool.max.per.route" if the property "scenario.concurrency" is not specified
+     */
+    public int getScenarioConcurrency(){
+        return propertiesManager.getPropertyAsInt("scenario.concurrency", getHttpPoolMaxPerRoute());
+    }
+
+    /**
+     * Returns whether scenarios and async requests run on virtual threads from the properties file.
+     *
+     * @return true if the property "virtual.threads.enabled" is set to true; false otherwise, also if it is not specified
+     */
+    public boolean isVirtualThreadsEnabled(){
+        return propertiesManager.getPropertyAsBoolean("virtual.threads.enabled", false);
+    }
+
+    /**
+     * Returns the maximum number of requests of a batch request step in flight at a time.
+     *
+     * @return the batch parallelism, 10 if the property "batch.parallelism" is not specified
+     */
+    public int getBatchParallelism(){
+        return propertiesManager.getPropertyAsInt("batch.parallelism", 10);
+    }
+
+    /**
+     * Returns the workload model of the load test runner, OPEN (a target rate of scenario starts) or CLOSED (a number of virtual users).
+     *
+     * @return the load model, CLOSED if the property "load.model" is not specified
+     */
+    public String getLoadModel(){
+        String prop = propertiesManager.getProperty("load.model");
+        return prop != null ? prop.trim() : "CLOSED";
+    }
+
+    /**
+     * Returns the number of virtual users of the load test runner. In the open model, it is the maximum number of scenarios running at a time.
+     *
+     * @return the number of virtual users, 10 if the property "load.users" is not specified
      */
-    private static void setConfig() {
+    public int getLoadUsers(){
+        return propertiesManager.getPropertyAsInt("load.users", 10);
+    }
+
+    /**
+     * Returns the target rate of scenario starts per second of the load test runner in the open model.
+     *
+     * @return the target rate, 10 if the property "load.rate" is not specified
+     */
+    public double getLoadRate(){
+        String prop = propertiesManager.getProperty("load.rate");
+        return prop != null ? Double.parseDouble(prop.trim()) : 10;
+    }
+
+    /**
+     * Returns the duration of the load test in seconds.
+     *
+     * @return the duration, 60 if the property "load.duration.seconds" is not specified
+     */
+    public int getLoadDurationSeconds(){
+        return propertiesManager.getPropertyAsInt("load.duration.seconds", 60);
+    }
+
+    /**
+     * Returns the maximum ratio of failed scenarios for the load test to pass.
+     *
+     * @return the maximum error rate, 0.01 if the property "load.max.error.rate" is not specified
+     */
+    public double getLoadMaxErrorRate(){
+        String prop = propertiesManager.getProperty("load.max.error.rate");
+        return prop != null ? Double.parseDouble(prop.trim()) : 0.01;
+    }
+
+    /**
+     * Returns the file the load test report is written to.
+     *
+     * @return the report file, "target/load-test-report.json" if the property "load.report.file" is not specified
+     */
+    public String getLoadReportFile(){
+        String prop = propertiesManager.getProperty("load.report.file");
+        return prop != null ? prop.trim() : "target/load-test-report.json";
+    }
+
+    /**
+     * Returns the directory the latency metrics are exported to at the end of the run, as 'latency.json' and 'latency.prom'.
+     *
+     * @return the latency report directory, "target/latency-report" if the property "latency.report.dir" is not specified
+     */
+    public String getLatencyReportDirectory(){
+        String prop = propertiesManager.getProperty("latency.report.dir");
+        return prop != null ? prop.trim() : "target/latency-report";
+    }
+
+    /**
+     * Returns the port of the local Spotify stub server started before the scenarios.
+     *
+     * @return the port, 0 if the property "stub.server.port" is not specified, in which case no stub server is started
+     */
+    public int getStubServerPort(){
+        return propertiesManager.getPropertyAsInt("stub.server.port", 0);
+    }
+
+    /**
+     * Returns whether the responses of the cacheable request steps are shared by all scenarios of the run.
+     *
+     * @return false if the property "fixture.cache.enabled" is set to false; true otherwise
+     */
+    public boolean isFixtureCacheEnabled(){
+        return propertiesManager.getPropertyAsBoolean("fixture.cache.enabled", true);
+    }
+
+    /**
+     * Returns whether JSON request bodies should be serialized while they are sent instead of upfront.
+     *
+     * @return true if the property "request.body.streaming.enabled" is set to true; false otherwise
+     */
+    public boolean isRequestBodyStreamingEnabled(){
+        return propertiesManager.getPropertyAsBoolean("request.body.streaming.enabled");
+    }
+
+    /**
+     * Returns whether response body assertions should extract all their paths in a single streaming pass.
+     * The pass reads the response body buffered by Rest Assured; only request bodies are streamed over the network.
+     *
+     * @return true if the property "response.body.streaming.enabled" is set to true; false otherwise
+     */
+    public boolean isResponseBodyStreamingEnabled(){
+        return propertiesManager.getPropertyAsBoolean("response.body.streaming.enabled");
+    }
+
+    /**
+     * Returns whether requests should share a pooled, keep-alive HTTP client.
+     *
+     * @return true if the property "http.pool.enabled" is set to true; false otherwise
+     */
+    public boolean isHttpPoolEnabled(){
+        return propertiesManager.getPropertyAsBoolean("http.pool.enabled");
+    }
+
+    /**
+     * Returns the maximum number of pooled connections from the properties file.
+     *
+     * @return the maximum number of pooled connections
+     */
+    public int getHttpPoolMaxTotal(){
+        return propertiesManager.getPropertyAsInt("http.pool.max.total");
+    }
+
+    /**
+     * Returns the maximum number of pooled connections per route from the properties file.
+     *
+     * @return the maximum number of pooled connections per route
+     */
+    public int getHttpPoolMaxPerRoute(){
+        return propertiesManager.getPropertyAsInt("http.pool.max.per.route");
+    }
+
+    /**
+     * Returns the time after which an idle pooled connection is closed from the properties file.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public long getHttpPoolIdleTimeoutMillis(){
+        return propertiesManager.getPropertyAsLong("http.pool.idle.timeout.millis");
+    }
+
+    /**
+     * Returns the maximum keep-alive duration of a pooled connection from the properties file.
+     *
+     * @return the keep-alive duration in milliseconds
+     */
+    public long getHttpPoolKeepAliveMillis(){
+        return propertiesManager.getPropertyAsLong("http.pool.keep.alive.millis");
+    }
+
+    /**
+     * Returns the interval at which expired and idle pooled connections are evicted from the properties file.
+     *
+     * @return the eviction interval in milliseconds
+     */
+    public long getHttpPoolEvictionIntervalMillis(){
+        return propertiesManager.getPropertyAsLong("http.pool.eviction.interval.millis");
+    }
+
+    /**
+     * Returns the maximum time a request waits for a free pooled connection from the properties file.
+     *
+     * @return the connection request timeout in milliseconds
+     */
+    public long getHttpPoolConnectionRequestTimeoutMillis(){
+        return propertiesManager.getPropertyAsLong("http.pool.connection.request.timeout.millis");
+    }
+
+    /**
+     * Returns the detail of the request and response logging from the properties file.
+     *
+     * @return the log level NONE, ERRORS, HEADERS or ALL, ALL if the property "rest.log.level" is not specified
+     */
+    public String getRestLogLevel(){
+        String prop = propertiesManager.getProperty("rest.log.level");
+        return prop != null ? prop.trim() : "ALL";
+    }
+
+    /**
+     * Returns the maximum number of log entries buffered by each asynchronous log writer from the properties file.
+     *
+     * @return the buffer capacity, 8192 if the property "rest.log.buffer.capacity" is not specified
+     */
+    public int getRestLogBufferCapacity(){
+        return propertiesManager.getPropertyAsInt("rest.log.buffer.capacity", 8192);
+    }
+
+    /**
+     * Returns what the asynchronous log writers do when their buffer is full from the properties file.
+     *
+     * @return the overflow policy DROP or BLOCK, BLOCK if the property "rest.log.overflow.policy" is not specified
+     */
+    public String getRestLogOverflowPolicy(){
+        String prop = propertiesManager.getProperty("rest.log.overflow.policy");
+        return prop != null ? prop.trim() : "BLOCK";
+    }
+
+    /**
+     * Returns the directory of the request and response log files from the properties file.
+     *
+     * @return the log directory, target/rest-log if the property "rest.log.dir" is not specified
+     */
+    public String getRestLogDirectory(){
+        String prop = propertiesManager.getProperty("rest.log.dir");
+        return prop != null ? prop.trim() : "target/rest-log";
+    }
+
+    /**
+     * Returns the size at which a request and response log file is rotated from the properties file.
+     *
+     * @return the maximum file size in bytes, 10 MB if the property "rest.log.file.max.bytes" is not specified
+     */
+    public long getRestLogFileMaxBytes(){
+        return propertiesManager.getPropertyAsLong("rest.log.file.max.bytes", 10L * 1024 * 1024);
+    }
+
+    /**
+     * Returns the number of rotated backups kept of each request and response log file from the properties file.
+     *
+     * @return the maximum number of backups, 5 if the property "rest.log.file.max.backups" is not specified
+     */
+    public int getRestLogFileMaxBackups(){
+        return propertiesManager.getPropertyAsInt("rest.log.file.max.backups", 5);
+    }
+
+    /**
+     * Returns whether the log files of all threads are merged into one file per log after the test run.
+     *
+     * @return false if the property "rest.log.merge" is set to false; true otherwise
+     */
+    public boolean isRestLogMergeEnabled(){
+        return propertiesManager.getPropertyAsBoolean("rest.log.merge", true);
+    }
+
+    /**
+     * Returns the sampling rate of the messages logged for every request of a step, e.g. the requests of a batch.
+     *
+     * @return the number of messages per logged message, 1 if the property "log.sample.rate" is not specified
+     */
+    public long getLogSampleRate(){
+        return propertiesManager.getPropertyAsLong("log.sample.rate", 1);
+    }
+
+    /**
+     * Returns a property of the given credential set. The first set uses the plain key, further sets the key suffixed with their number.
+     *
+     * @param key              the key of the property in the first credential set
+     * @param credentialNumber the number of the credential set, starting at 1
+     * @return the property value
+     * @throws RuntimeException if the property is not specified in the config.properties file
+     */
+    private String getCredentialProperty(String key, int credentialNumber){
+        String credentialKey = credentialNumber == 1 ? key : key + "." + credentialNumber;
+        String prop = propertiesManager.getProperty(credentialKey);
+        if(prop != null) return prop;
+        else throw new RuntimeException("property " + credentialKey + " is not specified in the config.properties file");
+    }
+
+    /**
+     * Returns the paths of the configuration files: the base configuration properties file, overlaid by the properties file of the
+     * environment type provided by command-line execution. If environment type not provided by command-line execution, the default value 'config-qa' will be used.
+     *
+     * @return the paths of the configuration files, from the base file to the environment file
+     * @throws IllegalArgumentException if the environment type is not valid
+     */
+    public static String[] getConfigFilePaths() {
         String environmentType = System.getProperty("config.file", Constants.CONFIG_QA);
         String configFilePath = null;
         switch (environmentType) {
@@ -180,10 +522,43 @@ public class ConfigLoader {
             case Constants.CONFIG_PROD:
                 configFilePath = Constants.PROD_CONFIG_PROPERTIES_PATH;
                 break;
+            case Constants.CONFIG_STUB:
+                configFilePath = Constants.STUB_CONFIG_PROPERTIES_PATH;
+                break;
             default:
                 throw new IllegalArgumentException("Invalid environment type: " + environmentType);
         }
-        propertiesManager = new PropertiesManager(configFilePath);
+        return new String[] {Constants.BASE_CONFIG_PROPERTIES_PATH, configFilePath};
+    }
+
+    /**
+     * Reads the configuration files returned by {@link #getConfigFilePaths()}.
+     * System properties and environment variables override the properties of both files, see {@link PropertiesManager}.
+     * If the property "config.reload.enabled" is set to true, the files are reloaded whenever they change.
+     *
+     * @return the PropertiesManager reading the configuration files
+     */
+    private static PropertiesManager setConfig() {
+        PropertiesManager propertiesManager = new PropertiesManager(getConfigFilePaths());
+        if (propertiesManager.getPropertyAsBoolean("config.reload.enabled")) {
+            try {
+                propertiesManager.startWatching();
+            } catch (IOException e) {
+                LOGGER.error("Failed to watch configuration files, changes will not be reloaded", e);
+            }
+        }
+        return propertiesManager;
+    }
+
+    /**
+     * Holder of the singleton instance, initialized by the class loader the first time getInstance is called.
+     */
+    private static final class Holder {
+
+        /**
+         * The singleton instance of the ConfigLoader class.
+         */
+        private static final ConfigLoader INSTANCE = new ConfigLoader();
     }
 
 }
@@ -14,10 +14,13 @@ public final class Constants {
     public static final String CONFIG_DEV = "config-dev";
     public static final String CONFIG_UAT = "config-uat";
     public static final String CONFIG_PROD = "config-prod";
+    public static final String CONFIG_STUB = "config-stub";
 
+    public static final String BASE_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config.properties";
     public static final String QA_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config-qa.properties";
     public static final String DEV_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config-dev.properties";
     public static final String UAT_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config-uat.properties";
     public static final String PROD_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config-prod.properties";
+    public static final String STUB_CONFIG_PROPERTIES_PATH = System.getProperty("user.dir") + "/src/test/resources/config-stub.properties";
 
 }
@@ -0,0 +1,63 @@
+package com.spotify.oauth;
+
+/**
+ * This class holds an issued access token together with the time until which it can be used.
+ * Instances are immutable, so they can be shared between threads without locking.
+ */
+public final class AccessToken {
+
+    /**
+     * The value of the Authorization header, e.g. 'Bearer BQBC...'.
+     */
+    private final String authorizationValue;
+
+    /**
+     * The time in epoch milliseconds after which the token must not be used anymore.
+     */
+    private final long expiryTimeMillis;
+
+    /**
+     * The time in epoch milliseconds at which a new token should be requested in the background.
+     */
+    private final long refreshTimeMillis;
+
+    /**
+     * Constructs a new AccessToken.
+     *
+     * @param authorizationValue the value of the Authorization header
+     * @param expiryTimeMillis   the time in epoch milliseconds after which the token must not be used anymore
+     * @param refreshTimeMillis  the time in epoch milliseconds at which a new token should be requested
+     */
+    public AccessToken(String authorizationValue, long expiryTimeMillis, long refreshTimeMillis) {
+        this.authorizationValue = authorizationValue;
+        this.expiryTimeMillis = expiryTimeMillis;
+        this.refreshTimeMillis = refreshTimeMillis;
+    }
+
+    /**
+     * Returns the value of the Authorization header.
+     *
+     * @return the token type followed by the access token
+     */
+    public String getAuthorizationValue() {
+        return authorizationValue;
+    }
+
+    /**
+     * Returns the time at which a new token should be requested in the background.
+     *
+     * @return the refresh time in epoch milliseconds
+     */
+    public long getRefreshTimeMillis() {
+        return refreshTimeMillis;
+    }
+
+    /**
+     * Checks if the token can still be used.
+     *
+     * @return true if the token has not expired yet; false otherwise
+     */
+    public boolean isValid() {
+        return System.currentTimeMillis() < expiryTimeMillis;
+    }
+}
@@ -0,0 +1,99 @@
+package com.spotify.oauth;
+
+/**
+ * This class holds one set of client and user credentials used to request access tokens.
+ */
+public final class Credential {
+
+    /**
+     * The number of the credential set in the properties file, starting at 1.
+     */
+    private final int number;
+
+    /**
+     * The client ID.
+     */
+    private final String clientId;
+
+    /**
+     * The client secret.
+     */
+    private final String clientSecret;
+
+    /**
+     * The refresh token of the user.
+     */
+    private final String refreshToken;
+
+    /**
+     * The ID of the user the refresh token belongs to.
+     */
+    private final String userId;
+
+    /**
+     * Constructs a new Credential.
+     *
+     * @param number       the number of the credential set in the properties file
+     * @param clientId     the client ID
+     * @param clientSecret the client secret
+     * @param refreshToken the refresh token of the user
+     * @param userId       the ID of the user
+     */
+    public Credential(int number, String clientId, String clientSecret, String refreshToken, String userId) {
+        this.number = number;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.refreshToken = refreshToken;
+        this.userId = userId;
+    }
+
+    /**
+     * Returns the number of the credential set.
+     *
+     * @return the number of the credential set in the properties file
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the client ID.
+     *
+     * @return the client ID
+     */
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Returns the client secret.
+     *
+     * @return the client secret
+     */
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    /**
+     * Returns the refresh token.
+     *
+     * @return the refresh token of the user
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * Returns the user ID.
+     *
+     * @return the ID of the user the refresh token belongs to
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "Credential " + number + " (user " + userId + ")";
+    }
+}
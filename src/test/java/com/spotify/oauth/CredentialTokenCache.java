@@ -0,0 +1,262 @@
+package com.spotify.oauth;
+
+import com.spotify.config.ConfigLoader;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import commons.restbase.RequestBase;
+import commons.restbase.ResponseBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class caches the access token of one credential set.
+ * Readers get the cached token without locking. A new token is requested by a background scheduler
+ * before the cached one expires, and only a single refresh runs at a time.
+ */
+public class CredentialTokenCache {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CredentialTokenCache.class);
+
+    /**
+     * Number of seconds before the end of its lifetime after which a token is no longer used, at most a quarter of the lifetime.
+     */
+    private static final long EXPIRY_MARGIN_SECONDS = 300;
+
+    /**
+     * Number of seconds before the token becomes unusable at which the background refresh starts, at most a quarter of the lifetime.
+     */
+    private static final long REFRESH_AHEAD_SECONDS = 300;
+
+    /**
+     * Minimum number of milliseconds between a refresh and the next background refresh, so short-lived tokens are not refreshed in a loop.
+     */
+    private static final long MIN_REFRESH_DELAY_MILLIS = 1000;
+
+    /**
+     * Number of seconds to wait before retrying a failed background refresh.
+     */
+    private static final long REFRESH_RETRY_SECONDS = 10;
+
+    /**
+     * The credential set the tokens are requested for.
+     */
+    private final Credential credential;
+
+    /**
+     * Scheduler running the background refreshes.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Metrics about token refreshes and readers waiting for a token.
+     */
+    private final TokenMetrics metrics;
+
+    /**
+     * The currently cached access token, or null if no token was issued yet.
+     */
+    private final AtomicReference<AccessToken> currentToken = new AtomicReference<>();
+
+    /**
+     * The refresh in progress, or null if no refresh is running.
+     */
+    private final AtomicReference<CompletableFuture<AccessToken>> refreshInProgress = new AtomicReference<>();
+
+    /**
+     * The next scheduled background refresh.
+     */
+    private final AtomicReference<ScheduledFuture<?>> scheduledRefresh = new AtomicReference<>();
+
+    /**
+     * The time in nanoseconds at which the credential was last handed out.
+     */
+    private final AtomicLong lastUsedNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructs a new CredentialTokenCache.
+     *
+     * @param credential the credential set the tokens are requested for
+     * @param scheduler  the scheduler running the background refreshes
+     * @param metrics    the metrics to record refreshes and reader waits into
+     */
+    public CredentialTokenCache(Credential credential, ScheduledExecutorService scheduler, TokenMetrics metrics) {
+        this.credential = credential;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the credential set the tokens are requested for.
+     *
+     * @return the credential set
+     */
+    public Credential getCredential() {
+        return credential;
+    }
+
+    /**
+     * Returns the access token. If no valid token is cached, it waits for a new token.
+     *
+     * @return the access token
+     */
+    public String getToken() {
+        AccessToken token = currentToken.get();
+        if (token != null && token.isValid()) {
+            metrics.recordCachedRead();
+            return token.getAuthorizationValue();
+        }
+        LOGGER.info("Waiting for token renewal of {}", credential);
+        long start = System.nanoTime();
+        try {
+            return refreshToken().join().getAuthorizationValue();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        } finally {
+            metrics.recordBlockedRead(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the time at which the credential was last handed out.
+     *
+     * @return the time in nanoseconds, Long.MIN_VALUE if it was never handed out
+     */
+    long getLastUsedNanos() {
+        return lastUsedNanos.get();
+    }
+
+    /**
+     * Marks the credential as handed out, unless another thread did so since the given time was read.
+     *
+     * @param expectedLastUsedNanos the last used time read before
+     * @return true if the credential was marked; false if another thread marked it first
+     */
+    boolean markUsed(long expectedLastUsedNanos) {
+        return lastUsedNanos.compareAndSet(expectedLastUsedNanos, System.nanoTime());
+    }
+
+    /**
+     * Returns the refresh in progress, or starts a new one. Only one refresh runs at a time,
+     * all concurrent callers share its result.
+     *
+     * @return the future completed with the renewed token
+     */
+    private CompletableFuture<AccessToken> refreshToken() {
+        while (true) {
+            CompletableFuture<AccessToken> inProgress = refreshInProgress.get();
+            if (inProgress != null) {
+                return inProgress;
+            }
+            CompletableFuture<AccessToken> refresh = new CompletableFuture<>();
+            if (refreshInProgress.compareAndSet(null, refresh)) {
+                renewToken(refresh);
+                return refresh;
+            }
+        }
+    }
+
+    /**
+     * Renews the access token and completes the given refresh with it.
+     *
+     * @param refresh the refresh to complete
+     */
+    private void renewToken(CompletableFuture<AccessToken> refresh) {
+        LOGGER.info("Renewing token of {}", credential);
+        long start = System.nanoTime();
+        try {
+            AccessToken token = requestNewToken();
+            metrics.recordRefresh(System.nanoTime() - start);
+            currentToken.set(token);
+            refreshInProgress.set(null);
+            scheduleRefresh(Math.max(token.getRefreshTimeMillis() - System.currentTimeMillis(), MIN_REFRESH_DELAY_MILLIS));
+            refresh.complete(token);
+        } catch (RuntimeException e) {
+            metrics.recordRefreshFailure();
+            refreshInProgress.set(null);
+            refresh.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Schedules the next background refresh, replacing any refresh scheduled before.
+     *
+     * @param delayMillis the delay in milliseconds after which the refresh starts
+     */
+    private void scheduleRefresh(long delayMillis) {
+        ScheduledFuture<?> next = scheduler.schedule(this::refreshInBackground, Math.max(delayMillis, 0), TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = scheduledRefresh.getAndSet(next);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /**
+     * Refreshes the token on the scheduler thread while readers keep using the cached token.
+     * A failed refresh is retried after a short delay.
+     */
+    private void refreshInBackground() {
+        refreshToken().whenComplete((token, e) -> {
+            if (e != null) {
+                LOGGER.error("Background token renewal of {} failed, retrying in {} seconds", credential, REFRESH_RETRY_SECONDS, e);
+                scheduleRefresh(TimeUnit.SECONDS.toMillis(REFRESH_RETRY_SECONDS));
+            }
+        });
+    }
+
+    /**
+     * Requests a new access token. The token is used until the end of its lifetime minus the expiry margin,
+     * and refreshed in the background the refresh-ahead time before that; both margins are capped to a quarter of the lifetime,
+     * so a short-lived token is still used for at least half of its lifetime.
+     *
+     * @return the new access token
+     * @throws RuntimeException if the token renewal request fails
+     */
+    private AccessToken requestNewToken() {
+        Response response = executeTokenRenewalRequest();
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("Renew token failed for " + credential);
+        }
+        String accessToken = response.path("access_token");
+        String accessTokenType = response.path("token_type");
+        int expiryDurationInSeconds = response.path("expires_in");
+        long lifetimeMillis = TimeUnit.SECONDS.toMillis(expiryDurationInSeconds);
+        long expiryTimeMillis = System.currentTimeMillis() + lifetimeMillis - Math.min(TimeUnit.SECONDS.toMillis(EXPIRY_MARGIN_SECONDS), lifetimeMillis / 4);
+        long refreshTimeMillis = expiryTimeMillis - Math.min(TimeUnit.SECONDS.toMillis(REFRESH_AHEAD_SECONDS), lifetimeMillis / 4);
+        return new AccessToken(accessTokenType + " " + accessToken, expiryTimeMillis, refreshTimeMillis);
+    }
+
+    /**
+     * Executes the token renewal request.
+     *
+     * @return the response of the token renewal request
+     */
+    private Response executeTokenRenewalRequest() {
+        Map<String, String> formParams = new HashMap<>();
+        formParams.put("client_id", credential.getClientId());
+        formParams.put("client_secret", credential.getClientSecret());
+        formParams.put("refresh_token", credential.getRefreshToken());
+        formParams.put("grant_type", ConfigLoader.getInstance().getGrantType());
+
+        RequestBase requestBase = new RequestBase(ConfigLoader.getInstance().getAccountsBaseUri());
+        requestBase.getRequestSpecification().formParams(formParams);
+        requestBase.getRequestSpecification().contentType(ContentType.URLENC);
+
+        ResponseBase responseBase = new ResponseBase();
+
+        return requestBase.getRequestSpecification().post("api/token")
+                .then().spec(responseBase.getResponseSpecification()).extract().response();
+    }
+}
@@ -1,19 +1,20 @@
 package com.spotify.oauth;
 
 import com.spotify.config.ConfigLoader;
-import io.restassured.http.ContentType;
-import io.restassured.response.Response;
-import commons.restbase.RequestBase;
-import commons.restbase.ResponseBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class is used to manage access tokens for API requests.
+ * It keeps a pool of credential sets loaded from the properties file, each with its own token cache and refresh schedule,
+ * and hands the credentials out to scenarios by round-robin or least-recently-used.
  */
 public class TokenManager {
 
@@ -23,76 +24,174 @@ public class TokenManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(TokenManager.class);
 
     /**
-     * The access token used for API requests.
+     * Metrics about token refreshes and readers waiting for a token, across all credential sets.
      */
-    private static String accessToken;
+    private static final TokenMetrics metrics = new TokenMetrics();
 
     /**
-     * The type of the access token.
+     * Counter used to hand out credentials by round-robin.
      */
-    private static String accessTokenType;
+    private static final AtomicInteger nextCredentialIndex = new AtomicInteger();
 
     /**
-     * The expiry time of the access token.
+     * The token pool, or null if it is not loaded yet or its loading failed.
      */
-    private static Instant expiryTime;
+    private static volatile TokenPool pool;
 
     /**
-     * Returns the access token. If the token is invalid, it renews the token.
+     * Private constructor to prevent instantiation of this class.
+     */
+    private TokenManager() {}
+
+    /**
+     * Loads the token pool from the properties file, if it is not loaded yet. Called once before the scenarios run,
+     * so a configuration error fails the run with its cause; if the loading fails, the next call retries it.
      *
-     * @return the access token
+     * @throws IllegalStateException if the token pool cannot be loaded, e.g. a credential set or the strategy is not specified
      */
-    public synchronized static String getToken() {
-        if (isTokenInvalid()) {
-            LOGGER.info("Renewing token");
-            renewToken();
+    public static synchronized void initialize() {
+        if (pool != null) {
+            return;
+        }
+        try {
+            pool = new TokenPool(ConfigLoader.getInstance());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to load the token pool: " + e.getMessage(), e);
         }
-        LOGGER.info("Returning token");
-        return accessTokenType + " " + accessToken;
     }
 
     /**
-     * Checks if the access token is invalid.
+     * Returns the access token of the next credential set according to the token pool strategy.
+     *
+     * @return the access token
+     */
+    public static String getToken() {
+        return acquireTokenCache().getToken();
+    }
+
+    /**
+     * Returns the access token of the given credential set.
+     *
+     * @param credential the credential set, as returned by acquireCredential()
+     * @return the access token
+     */
+    public static String getToken(Credential credential) {
+        return getPool().caches.get(credential.getNumber() - 1).getToken();
+    }
+
+    /**
+     * Returns the next credential set according to the token pool strategy.
+     * A scenario acquires one credential set and uses it for all its requests.
+     *
+     * @return the credential set
+     */
+    public static Credential acquireCredential() {
+        return acquireTokenCache().getCredential();
+    }
+
+    /**
+     * Returns the metrics about token refreshes and readers waiting for a token.
+     *
+     * @return the token metrics
+     */
+    public static TokenMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the token cache of the next credential set according to the token pool strategy.
      *
-     * @return true if the token is invalid; false otherwise
+     * @return the token cache
      */
-    private static boolean isTokenInvalid() {
-        return accessToken == null || Instant.now().isAfter(expiryTime);
+    private static CredentialTokenCache acquireTokenCache() {
+        TokenPool tokenPool = getPool();
+        List<CredentialTokenCache> caches = tokenPool.caches;
+        if (tokenPool.strategy == TokenSelectionStrategy.LEAST_RECENTLY_USED) {
+            return acquireLeastRecentlyUsed(caches);
+        }
+        return caches.get(Math.floorMod(nextCredentialIndex.getAndIncrement(), caches.size()));
     }
 
     /**
-     * Renews the access token.
+     * Returns the token pool, loading it if it is not loaded yet.
+     *
+     * @return the token pool
+     * @throws IllegalStateException if the token pool cannot be loaded
      */
-    private static void renewToken() {
-        Response response = executeTokenRenewalRequest();
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Renew token failed");
+    private static TokenPool getPool() {
+        TokenPool tokenPool = pool;
+        if (tokenPool == null) {
+            initialize();
+            tokenPool = pool;
         }
-        accessToken = response.path("access_token");
-        accessTokenType = response.path("token_type");
-        int expiryDurationInSeconds = response.path("expires_in");
-        expiryTime = Instant.now().plusSeconds(expiryDurationInSeconds - 300);
+        return tokenPool;
     }
 
     /**
-     * Executes the token renewal request.
+     * Returns the token cache that was handed out least recently and marks it as used.
      *
-     * @return the response of the token renewal request
+     * @param caches the token caches of the pool
+     * @return the token cache
      */
-    private static Response executeTokenRenewalRequest() {
-        Map<String, String> formParams = new HashMap<>();
-        formParams.put("client_id", ConfigLoader.getInstance().getClientId());
-        formParams.put("client_secret", ConfigLoader.getInstance().getClientSecret());
-        formParams.put("refresh_token", ConfigLoader.getInstance().getRefreshToken());
-        formParams.put("grant_type", ConfigLoader.getInstance().getGrantType());
+    private static CredentialTokenCache acquireLeastRecentlyUsed(List<CredentialTokenCache> caches) {
+        while (true) {
+            CredentialTokenCache leastRecentlyUsed = caches.get(0);
+            long leastRecentlyUsedNanos = leastRecentlyUsed.getLastUsedNanos();
+            for (int i = 1; i < caches.size(); i++) {
+                long lastUsedNanos = caches.get(i).getLastUsedNanos();
+                if (lastUsedNanos < leastRecentlyUsedNanos) {
+                    leastRecentlyUsed = caches.get(i);
+                    leastRecentlyUsedNanos = lastUsedNanos;
+                }
+            }
+            if (leastRecentlyUsed.markUsed(leastRecentlyUsedNanos)) {
+                return leastRecentlyUsed;
+            }
+        }
+    }
 
-        RequestBase requestBase = new RequestBase(ConfigLoader.getInstance().getAccountsBaseUri());
-        requestBase.getRequestSpecification().formParams(formParams);
-        requestBase.getRequestSpecification().contentType(ContentType.URLENC);
+    /**
+     * The token pool: the credential sets loaded from the properties file, each with its token cache, and the strategy handing them out.
+     */
+    private static final class TokenPool {
+
+        /**
+         * The strategy used to hand out the credential sets.
+         */
+        private final TokenSelectionStrategy strategy;
 
-        ResponseBase responseBase = new ResponseBase();
+        /**
+         * The token caches, one per credential set, in the order of their numbers.
+         */
+        private final List<CredentialTokenCache> caches;
 
-        return requestBase.getRequestSpecification().post("api/token")
-                .then().spec(responseBase.getResponseSpecification()).extract().response();
+        /**
+         * Constructs the token pool from the configuration.
+         *
+         * @param configLoader the configuration with the token pool size, strategy and credential sets
+         * @throws RuntimeException if a credential set is not specified
+         * @throws IllegalArgumentException if the strategy is not valid
+         */
+        private TokenPool(ConfigLoader configLoader) {
+            int poolSize = configLoader.getTokenPoolSize();
+            strategy = TokenSelectionStrategy.valueOf(configLoader.getTokenPoolStrategy().trim().toUpperCase());
+            LOGGER.info("Loading token pool with {} credential set(s), strategy: '{}'", poolSize, strategy);
+
+            List<Credential> credentials = new ArrayList<>(poolSize);
+            for (int number = 1; number <= poolSize; number++) {
+                credentials.add(new Credential(number, configLoader.getClientId(number), configLoader.getClientSecret(number),
+                        configLoader.getRefreshToken(number), configLoader.getUserId(number)));
+            }
+            ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "token-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            List<CredentialTokenCache> tokenCaches = new ArrayList<>(poolSize);
+            for (Credential credential : credentials) {
+                tokenCaches.add(new CredentialTokenCache(credential, scheduler, metrics));
+            }
+            caches = Collections.unmodifiableList(tokenCaches);
+        }
     }
 }
@@ -0,0 +1,130 @@
+package com.spotify.oauth;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects metrics about token refreshes and about readers waiting for a token.
+ * All counters can be updated concurrently without locking.
+ */
+public class TokenMetrics {
+
+    /**
+     * Number of token reads served from the cache without waiting.
+     */
+    private final LongAdder cachedReads = new LongAdder();
+
+    /**
+     * Number of token reads that had to wait for a refresh.
+     */
+    private final LongAdder blockedReads = new LongAdder();
+
+    /**
+     * Total time in nanoseconds that readers waited for a refresh.
+     */
+    private final LongAdder readerWaitNanos = new LongAdder();
+
+    /**
+     * Number of successful token refreshes.
+     */
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Number of failed token refreshes.
+     */
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * Total duration in nanoseconds of the successful token refreshes.
+     */
+    private final LongAdder refreshNanos = new LongAdder();
+
+    /**
+     * Longest duration in nanoseconds of a successful token refresh.
+     */
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+
+    /**
+     * Records a token read served from the cache.
+     */
+    public void recordCachedRead() {
+        cachedReads.increment();
+    }
+
+    /**
+     * Records a token read that had to wait for a refresh.
+     *
+     * @param waitNanos the time in nanoseconds the reader waited
+     */
+    public void recordBlockedRead(long waitNanos) {
+        blockedReads.increment();
+        readerWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Records a successful token refresh.
+     *
+     * @param durationNanos the duration in nanoseconds of the refresh
+     */
+    public void recordRefresh(long durationNanos) {
+        refreshes.increment();
+        refreshNanos.add(durationNanos);
+        maxRefreshNanos.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    /**
+     * Records a failed token refresh.
+     */
+    public void recordRefreshFailure() {
+        refreshFailures.increment();
+    }
+
+    /**
+     * Returns the number of token reads that had to wait for a refresh.
+     *
+     * @return the number of blocked reads
+     */
+    public long getBlockedReads() {
+        return blockedReads.sum();
+    }
+
+    /**
+     * Returns the average time readers waited for a refresh.
+     *
+     * @return the average wait time in milliseconds, or 0 if no reader waited
+     */
+    public double getAverageReaderWaitMillis() {
+        long count = blockedReads.sum();
+        return count == 0 ? 0 : readerWaitNanos.sum() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Returns the average duration of a successful token refresh.
+     *
+     * @return the average refresh latency in milliseconds, or 0 if no refresh was made
+     */
+    public double getAverageRefreshMillis() {
+        long count = refreshes.sum();
+        return count == 0 ? 0 : refreshNanos.sum() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Returns the longest duration of a successful token refresh.
+     *
+     * @return the maximum refresh latency in milliseconds
+     */
+    public double getMaxRefreshMillis() {
+        return maxRefreshNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Returns a one line summary of the metrics, suitable for logging.
+     *
+     * @return the summary of the metrics
+     */
+    public String getSummary() {
+        return String.format("cachedReads=%d, blockedReads=%d, avgReaderWaitMillis=%.2f, refreshes=%d, refreshFailures=%d, avgRefreshMillis=%.2f, maxRefreshMillis=%.2f",
+                cachedReads.sum(), getBlockedReads(), getAverageReaderWaitMillis(), refreshes.sum(), refreshFailures.sum(),
+                getAverageRefreshMillis(), getMaxRefreshMillis());
+    }
+}
@@ -0,0 +1,17 @@
+package com.spotify.oauth;
+
+/**
+ * This enum defines how credentials of the token pool are handed out to scenarios.
+ */
+public enum TokenSelectionStrategy {
+
+    /**
+     * Hand out the credentials one after another.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Hand out the credential that was used least recently.
+     */
+    LEAST_RECENTLY_USED
+}
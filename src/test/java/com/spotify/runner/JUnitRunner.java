@@ -18,6 +18,7 @@ import io.cucumber.junit.CucumberOptions;
         plugin={"pretty",
                 "html:target/cucumber-reports.html",
                 "json:target/cucumber.json",
+                "com.spotify.runner.StepLatencyListener"
         }
 )
 public class JUnitRunner {
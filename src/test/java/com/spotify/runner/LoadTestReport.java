@@ -0,0 +1,181 @@
+package com.spotify.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.metrics.LatencyMetrics;
+import commons.metrics.LatencyRegistry;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class builds the report of a load test: achieved throughput, error rates and latency percentiles of the scenarios,
+ * the endpoints and the steps. Latencies are reported in milliseconds.
+ */
+public class LoadTestReport {
+
+    /**
+     * The report, ready to be serialized as JSON.
+     */
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    /**
+     * Number of scenarios run.
+     */
+    private final long scenarios;
+
+    /**
+     * Number of failed scenarios.
+     */
+    private final long failedScenarios;
+
+    /**
+     * Duration of the run in seconds.
+     */
+    private final double elapsedSeconds;
+
+    /**
+     * Constructs the report of a load test.
+     *
+     * @param settings           the workload settings, e.g. model, users and rate
+     * @param elapsedNanos       duration of the run until the last scenario has finished
+     * @param scenarioLatencies  latencies of the scenarios, keyed by scenario name
+     * @param scenarioErrors     number of failed scenarios, keyed by scenario name
+     * @param endpointLatencies  latencies of the request steps, keyed by HTTP method and endpoint template
+     * @param endpointErrors     number of failed request steps, keyed by HTTP method and endpoint template
+     * @param stepLatencies      latencies of the steps, keyed by step pattern
+     * @param stepErrors         number of failed steps, keyed by step pattern
+     */
+    public LoadTestReport(Map<String, Object> settings, long elapsedNanos,
+                          LatencyRegistry scenarioLatencies, Map<String, Long> scenarioErrors,
+                          LatencyRegistry endpointLatencies, Map<String, Long> endpointErrors,
+                          LatencyRegistry stepLatencies, Map<String, Long> stepErrors) {
+        elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        Map<String, Object> scenarioReport = toReport(scenarioLatencies.snapshot(), scenarioErrors);
+        Map<String, Object> endpointReport = toReport(endpointLatencies.snapshot(), endpointErrors);
+        scenarios = total(scenarioReport, "count");
+        failedScenarios = total(scenarioReport, "errors");
+
+        report.putAll(settings);
+        report.put("elapsedSeconds", round(elapsedSeconds));
+        report.put("scenarios", toTotals(scenarios, failedScenarios));
+        report.put("requests", toTotals(total(endpointReport, "count"), total(endpointReport, "errors")));
+        report.put("scenarioLatencies", scenarioReport);
+        report.put("endpointLatencies", endpointReport);
+        report.put("stepLatencies", toReport(stepLatencies.snapshot(), stepErrors));
+    }
+
+    /**
+     * Returns the ratio of failed scenarios.
+     *
+     * @return the error rate between 0 and 1, 0 if no scenario has run
+     */
+    public double getErrorRate() {
+        return scenarios > 0 ? failedScenarios / (double) scenarios : 0;
+    }
+
+    /**
+     * Returns the number of scenarios run.
+     *
+     * @return the number of scenarios
+     */
+    public long getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param file the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    /**
+     * Returns a one line summary per endpoint, for the log.
+     *
+     * @return the summary
+     */
+    @SuppressWarnings("unchecked")
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%d scenarios in %.1f s (%.1f/s), %d failed", scenarios, elapsedSeconds, scenarios / elapsedSeconds, failedScenarios));
+        Map<String, Object> endpoints = (Map<String, Object>) report.get("endpointLatencies");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            Map<String, Object> stats = (Map<String, Object>) entry.getValue();
+            summary.append(System.lineSeparator()).append(String.format("%s: %s requests (%s/s), %s errors, p50 %s ms, p95 %s ms, p99 %s ms, max %s ms",
+                    entry.getKey(), stats.get("count"), stats.get("throughput"), stats.get("errors"), stats.get("p50"), stats.get("p95"), stats.get("p99"), stats.get("max")));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Builds the statistics of each histogram.
+     *
+     * @param histograms the histograms in microseconds, keyed by name
+     * @param errors     the number of errors, keyed by name
+     * @return the statistics, keyed by name
+     */
+    private Map<String, Object> toReport(Map<String, Histogram> histograms, Map<String, Long> errors) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            long count = entry.getValue().getTotalCount();
+            long errorCount = errors.getOrDefault(entry.getKey(), 0L);
+            Map<String, Object> histogramStats = toTotals(count, errorCount);
+            histogramStats.putAll(LatencyMetrics.toStatistics(entry.getValue()));
+            stats.put(entry.getKey(), histogramStats);
+        }
+        return stats;
+    }
+
+    /**
+     * Builds the totals of a category.
+     *
+     * @param count  the number of runs
+     * @param errors the number of failed runs
+     * @return the totals
+     */
+    private Map<String, Object> toTotals(long count, long errors) {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("count", count);
+        totals.put("errors", errors);
+        totals.put("errorRate", round(count > 0 ? errors / (double) count : 0));
+        totals.put("throughput", round(count / elapsedSeconds));
+        return totals;
+    }
+
+    /**
+     * Sums a statistic over all histograms of a category.
+     *
+     * @param stats the statistics, keyed by name
+     * @param key   the statistic
+     * @return the sum
+     */
+    @SuppressWarnings("unchecked")
+    private static long total(Map<String, Object> stats, String key) {
+        long total = 0;
+        for (Object histogramStats : stats.values()) {
+            total += (Long) ((Map<String, Object>) histogramStats).get(key);
+        }
+        return total;
+    }
+
+    /**
+     * Rounds a value to 3 decimals.
+     *
+     * @param value the value
+     * @return the rounded value
+     */
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.spotify.runner;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cucumber plugin counting the failed steps of the load test runner, the counterpart of the latencies recorded in LatencyMetrics.
+ * Steps are keyed by their pattern, e.g. 'User makes a POST request to endpoint: {string}', and request steps are
+ * additionally keyed by upper-case HTTP method and endpoint template, e.g. 'POST users/{user_id}/playlists', as their latencies are.
+ * Cucumber creates the plugin itself, so the counters are held statically for the runner to read.
+ */
+public class LoadTestReporter implements ConcurrentEventListener {
+
+    /**
+     * Pattern of the text of the request steps, including the cacheable and async ones, capturing the HTTP method and the endpoint template.
+     */
+    private static final Pattern REQUEST_STEP = Pattern.compile("^User makes (?:a|a cacheable|an async) (\\w+) request to endpoint: \"(.*?)\"(?: as: \".*\")?$");
+
+    /**
+     * Number of failed steps, keyed by step pattern.
+     */
+    private static final ConcurrentMap<String, LongAdder> STEP_ERRORS = new ConcurrentHashMap<>();
+
+    /**
+     * Number of failed request steps, keyed by HTTP method and endpoint template.
+     */
+    private static final ConcurrentMap<String, LongAdder> ENDPOINT_ERRORS = new ConcurrentHashMap<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+    }
+
+    /**
+     * Method to clear the counters before a load test.
+     */
+    public static void reset() {
+        STEP_ERRORS.clear();
+        ENDPOINT_ERRORS.clear();
+    }
+
+    /**
+     * Getter method for the failed steps.
+     * @return Number of failed steps, keyed by step pattern.
+     */
+    public static Map<String, Long> getStepErrors() {
+        return toCounts(STEP_ERRORS);
+    }
+
+    /**
+     * Getter method for the failed request steps.
+     * @return Number of failed request steps, keyed by HTTP method and endpoint template.
+     */
+    public static Map<String, Long> getEndpointErrors() {
+        return toCounts(ENDPOINT_ERRORS);
+    }
+
+    /**
+     * Method to count a failed step. Skipped steps, following a failed step, are not counted.
+     * @param event The event of the finished step.
+     */
+    private void onTestStepFinished(TestStepFinished event) {
+        Status status = event.getResult().getStatus();
+        if (!(event.getTestStep() instanceof PickleStepTestStep) || status == Status.PASSED || status == Status.SKIPPED) {
+            return;
+        }
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+        STEP_ERRORS.computeIfAbsent(step.getPattern(), key -> new LongAdder()).increment();
+        Matcher matcher = REQUEST_STEP.matcher(step.getStep().getText());
+        if (matcher.matches()) {
+            String method = matcher.group(1).toUpperCase(Locale.ROOT);
+            ENDPOINT_ERRORS.computeIfAbsent(method + " " + matcher.group(2), key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Method to read counters.
+     * @param counters Counters keyed by name.
+     * @return Values of the counters, sorted by name.
+     */
+    static Map<String, Long> toCounts(Map<String, LongAdder> counters) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+}
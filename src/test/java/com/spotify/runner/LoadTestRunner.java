@@ -0,0 +1,235 @@
+package com.spotify.runner;
+
+import com.spotify.config.ConfigLoader;
+import commons.metrics.LatencyMetrics;
+import commons.metrics.LatencyRegistry;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to run the selected scenarios as a load test with TestNG, replaying them for a fixed duration.
+ * In the CLOSED model, 'load.users' virtual users each run the scenarios one after another.
+ * In the OPEN model, scenarios are started at 'load.rate' per second on at most 'load.users' threads; scenario latencies are
+ * measured from the intended start, so the time a scenario waits for a free thread counts as latency.
+ * The scenarios to replay are selected with the tags below or with '-Dcucumber.filter.tags'.
+ *
+ * @author Jaspal Aujla
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"com.spotify.steps"},
+        monochrome = true,
+        dryRun = false,
+        publish = false,
+        tags="@smoke",
+        plugin = {"com.spotify.runner.LoadTestReporter",
+                "com.spotify.runner.StepLatencyListener"
+        }
+)
+public class LoadTestRunner {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    /**
+     * Time the scenarios still running at the end of the load duration are given to finish, in seconds.
+     */
+    private static final long SHUTDOWN_GRACE_SECONDS = 60;
+
+    /**
+     * The runner executing the scenarios.
+     */
+    private TestNGCucumberRunner testNGCucumberRunner;
+
+    /**
+     * Latencies of the scenarios, keyed by scenario name.
+     */
+    private final LatencyRegistry scenarioLatencies = new LatencyRegistry();
+
+    /**
+     * Number of failed scenarios, keyed by scenario name.
+     */
+    private final ConcurrentMap<String, LongAdder> scenarioErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the Cucumber runner with the parameters of the TestNG suite.
+     *
+     * @param context the TestNG test context
+     */
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        testNGCucumberRunner = new TestNGCucumberRunner(this.getClass(), context.getCurrentXmlTest()::getParameter);
+    }
+
+    /**
+     * Replays the scenarios for the configured duration, writes the report and fails if the error rate is too high
+     * or if scenarios are still running after the grace period.
+     *
+     * @throws Exception if interrupted or if the report cannot be written
+     */
+    @Test(groups = "cucumber", description = "Replays Cucumber Scenarios as a load test")
+    public void runLoadTest() throws Exception {
+        List<Pickle> pickles = new ArrayList<>();
+        for (Object[] scenario : testNGCucumberRunner.provideScenarios()) {
+            pickles.add(((PickleWrapper) scenario[0]).getPickle());
+        }
+        if (pickles.isEmpty()) {
+            throw new SkipException("No scenarios selected for the load test");
+        }
+
+        ConfigLoader configLoader = ConfigLoader.getInstance();
+        String model = configLoader.getLoadModel().toUpperCase();
+        int users = configLoader.getLoadUsers();
+        double rate = configLoader.getLoadRate();
+        int durationSeconds = configLoader.getLoadDurationSeconds();
+        LOGGER.info("Starting {} load test of {} scenarios with {} users, rate: {}/s, duration: {} s", model, pickles.size(), users, rate, durationSeconds);
+
+        LoadTestReporter.reset();
+        LatencyMetrics.reset();
+        AtomicInteger userCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(users, runnable -> {
+            Thread thread = new Thread(runnable, "load-user-" + userCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        try {
+            switch (model) {
+                case "CLOSED":
+                    runClosedModel(workers, pickles, users, deadlineNanos);
+                    break;
+                case "OPEN":
+                    runOpenModel(workers, pickles, rate, startNanos, deadlineNanos);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid load model: " + model);
+            }
+        } catch (RuntimeException | InterruptedException e) {
+            workers.shutdownNow();
+            throw e;
+        }
+        workers.shutdown();
+        LOGGER.info("Waiting for running scenarios to finish");
+        long graceDeadlineNanos = deadlineNanos + TimeUnit.SECONDS.toNanos(SHUTDOWN_GRACE_SECONDS);
+        if (!workers.awaitTermination(graceDeadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load test scenarios still running " + SHUTDOWN_GRACE_SECONDS
+                    + " s after the load duration of " + durationSeconds + " s, e.g. blocked on a request; the running scenarios were interrupted");
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("model", model);
+        settings.put("users", users);
+        settings.put("targetRate", "OPEN".equals(model) ? rate : null);
+        settings.put("durationSeconds", durationSeconds);
+        LoadTestReport report = new LoadTestReport(settings, elapsedNanos,
+                scenarioLatencies, LoadTestReporter.toCounts(scenarioErrors),
+                LatencyMetrics.getRequestLatencies(), LoadTestReporter.getEndpointErrors(),
+                LatencyMetrics.getStepLatencies(), LoadTestReporter.getStepErrors());
+        report.write(Paths.get(configLoader.getLoadReportFile()));
+        LOGGER.info("Load test report written to '{}': {}", configLoader.getLoadReportFile(), report.getSummary());
+
+        double maxErrorRate = configLoader.getLoadMaxErrorRate();
+        if (report.getErrorRate() > maxErrorRate) {
+            throw new AssertionError(String.format("Error rate %.4f of %d scenarios exceeds the maximum of %.4f", report.getErrorRate(), report.getScenarios(), maxErrorRate));
+        }
+    }
+
+    /**
+     * Finishes the Cucumber run, which runs the AfterAll hooks.
+     */
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (testNGCucumberRunner != null) {
+            testNGCucumberRunner.finish();
+        }
+    }
+
+    /**
+     * Starts the virtual users, each running the scenarios one after another until the deadline, starting at a different scenario.
+     *
+     * @param workers       the threads of the virtual users
+     * @param pickles       the scenarios
+     * @param users         the number of virtual users
+     * @param deadlineNanos the time after which no scenario is started
+     */
+    private void runClosedModel(ExecutorService workers, List<Pickle> pickles, int users, long deadlineNanos) {
+        for (int user = 0; user < users; user++) {
+            int firstScenario = user;
+            workers.execute(() -> {
+                for (int next = firstScenario; System.nanoTime() - deadlineNanos < 0; next++) {
+                    runScenario(pickles.get(next % pickles.size()), System.nanoTime());
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts the scenarios one after another at the target rate until the deadline, regardless of how many are still running.
+     *
+     * @param workers       the threads running the scenarios
+     * @param pickles       the scenarios
+     * @param rate          the number of scenarios started per second
+     * @param startNanos    the start time of the load test
+     * @param deadlineNanos the time after which no scenario is started
+     * @throws InterruptedException if interrupted while waiting for the next start
+     */
+    private void runOpenModel(ExecutorService workers, List<Pickle> pickles, double rate, long startNanos, long deadlineNanos) throws InterruptedException {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Invalid load rate: " + rate);
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long count = 0; ; count++) {
+            long intendedStartNanos = startNanos + (long) (count * intervalNanos);
+            if (intendedStartNanos - deadlineNanos >= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.sleep(intendedStartNanos - System.nanoTime());
+            Pickle pickle = pickles.get((int) (count % pickles.size()));
+            workers.execute(() -> runScenario(pickle, intendedStartNanos));
+        }
+    }
+
+    /**
+     * Runs a scenario and records its latency and outcome.
+     *
+     * @param pickle     the scenario
+     * @param startNanos the time the scenario was meant to start, from which its latency is measured
+     */
+    private void runScenario(Pickle pickle, long startNanos) {
+        try {
+            testNGCucumberRunner.runScenario(pickle);
+        } catch (Throwable e) {
+            LOGGER.debug("Scenario '{}' failed", pickle.getName(), e);
+            scenarioErrors.computeIfAbsent(pickle.getName(), key -> new LongAdder()).increment();
+        } finally {
+            scenarioLatencies.record(pickle.getName(), System.nanoTime() - startNanos);
+        }
+    }
+}
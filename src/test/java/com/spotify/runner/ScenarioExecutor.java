@@ -0,0 +1,99 @@
+package com.spotify.runner;
+
+import commons.concurrent.VirtualThreadExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs scenarios on virtual threads, or on platform threads if virtual threads are disabled, at most a configured number at a time.
+ * Each running scenario holds a worker slot and its thread is named after the slot ('scenario-worker-N'),
+ * so per-thread resources keyed by thread name, such as the request/response log files, are shared by the scenarios
+ * using the same slot one after another instead of being created for every virtual thread.
+ */
+public class ScenarioExecutor implements AutoCloseable {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioExecutor.class);
+
+    /**
+     * Executor starting a thread for each scenario.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The worker slots not in use.
+     */
+    private final BlockingQueue<Integer> workerSlots;
+
+    /**
+     * Constructs a new ScenarioExecutor.
+     *
+     * @param concurrency    the maximum number of scenarios running at a time
+     * @param virtualThreads whether to run the scenarios on virtual threads when they are available
+     */
+    public ScenarioExecutor(int concurrency, boolean virtualThreads) {
+        LOGGER.info("Constructing ScenarioExecutor with concurrency: {}, virtualThreads: {}", concurrency, virtualThreads);
+        executor = VirtualThreadExecutors.newThreadPerTaskExecutor("scenario", virtualThreads);
+        workerSlots = new ArrayBlockingQueue<>(concurrency);
+        for (int slot = 1; slot <= concurrency; slot++) {
+            workerSlots.add(slot);
+        }
+    }
+
+    /**
+     * Starts the given scenario as soon as a worker slot is free, waiting for it if all slots are in use.
+     *
+     * @param scenario the scenario to be run
+     * @return a future completed when the scenario has finished, exceptionally if it has failed
+     * @throws InterruptedException if interrupted while waiting for a free worker slot
+     */
+    public CompletableFuture<Void> submit(Runnable scenario) throws InterruptedException {
+        Integer slot = workerSlots.take();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                Thread thread = Thread.currentThread();
+                String threadName = thread.getName();
+                thread.setName("scenario-worker-" + slot);
+                try {
+                    scenario.run();
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    thread.setName(threadName);
+                    workerSlots.add(slot);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            workerSlots.add(slot);
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Stops accepting scenarios and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.info("Waiting for running scenarios to finish");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.spotify.runner;
+
+import commons.metrics.LatencyMetrics;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Cucumber plugin recording the duration of every step into the step latency histograms, keyed by step pattern,
+ * e.g. 'User makes a POST request to endpoint: {string}'. Skipped steps, following a failed step, are not recorded.
+ */
+public class StepLatencyListener implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+    }
+
+    /**
+     * Method to record the duration of a finished step.
+     * @param event The event of the finished step.
+     */
+    private void onTestStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep && event.getResult().getStatus() != Status.SKIPPED) {
+            LatencyMetrics.recordStep(((PickleStepTestStep) event.getTestStep()).getPattern(), event.getResult().getDuration().toNanos());
+        }
+    }
+}
@@ -19,7 +19,8 @@ import org.testng.annotations.DataProvider;
         plugin = {"pretty",
                 "html:target/cucumber-reports.html",
                 "json:target/cucumber.json",
-                "junit:target/junit-cucumber-results.xml"
+                "junit:target/junit-cucumber-results.xml",
+                "com.spotify.runner.StepLatencyListener"
         }
 )
 public class TestNgParallelRunner extends AbstractTestNGCucumberTests {
@@ -18,7 +18,8 @@ import io.cucumber.testng.CucumberOptions;
         plugin = {"pretty",
                 "html:target/cucumber-reports.html",
                 "json:target/cucumber.json",
-                "junit:target/junit-cucumber-results.xml"
+                "junit:target/junit-cucumber-results.xml",
+                "com.spotify.runner.StepLatencyListener"
         }
 )
 public class TestNgRunner extends AbstractTestNGCucumberTests {
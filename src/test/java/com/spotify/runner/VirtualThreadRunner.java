@@ -0,0 +1,102 @@
+package com.spotify.runner;
+
+import com.spotify.config.ConfigLoader;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class is used to configure Cucumber options and run the test(s) with TestNG, each scenario on its own virtual thread.
+ * The number of scenarios running at a time is limited by 'scenario.concurrency' instead of a fixed thread pool size.
+ * Virtual threads are used only with 'virtual.threads.enabled=true'. Otherwise, and on a JVM without virtual threads
+ * (before Java 21), the scenarios run on platform threads with the same limit.
+ *
+ * @author Jaspal Aujla
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"com.spotify.steps"},
+        monochrome = true,
+        dryRun = false,
+        publish = false,
+        tags="@regression",
+        plugin = {"pretty",
+                "html:target/cucumber-reports.html",
+                "json:target/cucumber.json",
+                "junit:target/junit-cucumber-results.xml",
+                "com.spotify.runner.StepLatencyListener"
+        }
+)
+public class VirtualThreadRunner {
+
+        /**
+         * The runner executing the scenarios.
+         */
+        private TestNGCucumberRunner testNGCucumberRunner;
+
+        /**
+         * Creates the Cucumber runner with the parameters of the TestNG suite.
+         *
+         * @param context the TestNG test context
+         */
+        @BeforeClass(alwaysRun = true)
+        public void setUpClass(ITestContext context) {
+                testNGCucumberRunner = new TestNGCucumberRunner(this.getClass(), context.getCurrentXmlTest()::getParameter);
+        }
+
+        /**
+         * Runs all scenarios concurrently and fails if any scenario has failed.
+         *
+         * @throws Exception if interrupted or if any scenario has failed
+         */
+        @Test(groups = "cucumber", description = "Runs Cucumber Scenarios on virtual threads")
+        public void runScenarios() throws Exception {
+                Object[][] scenarios = testNGCucumberRunner.provideScenarios();
+                List<CompletableFuture<Void>> results = new ArrayList<>(scenarios.length);
+                ConfigLoader configLoader = ConfigLoader.getInstance();
+                try (ScenarioExecutor executor = new ScenarioExecutor(configLoader.getScenarioConcurrency(), configLoader.isVirtualThreadsEnabled())) {
+                        for (Object[] scenario : scenarios) {
+                                PickleWrapper pickleWrapper = (PickleWrapper) scenario[0];
+                                results.add(executor.submit(() -> testNGCucumberRunner.runScenario(pickleWrapper.getPickle())));
+                        }
+                }
+
+                List<Throwable> failures = new ArrayList<>();
+                for (CompletableFuture<Void> result : results) {
+                        try {
+                                result.get();
+                        } catch (ExecutionException e) {
+                                if (!(e.getCause() instanceof SkipException)) {
+                                        failures.add(e.getCause());
+                                }
+                        }
+                }
+                if (!failures.isEmpty()) {
+                        AssertionError error = new AssertionError(failures.size() + " of " + scenarios.length + " scenarios failed", failures.get(0));
+                        for (Throwable failure : failures.subList(1, failures.size())) {
+                                error.addSuppressed(failure);
+                        }
+                        throw error;
+                }
+        }
+
+        /**
+         * Finishes the Cucumber run, which runs the AfterAll hooks and writes the reports.
+         */
+        @AfterClass(alwaysRun = true)
+        public void tearDownClass() {
+                if (testNGCucumberRunner != null) {
+                        testNGCucumberRunner.finish();
+                }
+        }
+}
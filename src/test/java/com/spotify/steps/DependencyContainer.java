@@ -1,16 +1,24 @@
 package com.spotify.steps;
 
+import com.spotify.config.ConfigLoader;
 import commons.restbase.RequestBase;
 import commons.restbase.ResponseBase;
 import io.restassured.response.Response;
 import com.spotify.codeless.support.RequestBodyManager;
 import com.spotify.codeless.support.DataStoreManager;
+import com.spotify.codeless.support.FixtureCache;
+import com.spotify.oauth.Credential;
 
 /**
  * This class is used to store shared object instances and make them available to Hooks and Steps classes.
  */
 public class DependencyContainer {
 
+    /**
+     * The configuration of the test run.
+     */
+    protected ConfigLoader configLoader;
+
     /**
      * The instance of RequestBase class used to manage request specifications.
      */
@@ -36,4 +44,14 @@ public class DependencyContainer {
      */
     protected DataStoreManager dataStoreManager;
 
+    /**
+     * The instance of FixtureCache class holding the cached fixtures used by the scenario.
+     */
+    protected FixtureCache fixtureCache;
+
+    /**
+     * The credential set of the token pool used for all requests of the scenario.
+     */
+    protected Credential credential;
+
 }
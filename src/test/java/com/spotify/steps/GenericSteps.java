@@ -1,25 +1,58 @@
 package com.spotify.steps;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spotify.codeless.support.EndpointTemplate;
+import com.spotify.codeless.support.FixtureCache;
+import com.spotify.codeless.support.JsonSchemaCache;
 import com.spotify.codeless.support.RequestBodyManager;
+import com.spotify.codeless.support.ResponsePathExtractor;
 import com.spotify.config.ConfigLoader;
+import com.spotify.oauth.Credential;
 import com.spotify.oauth.TokenManager;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
 import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
 import com.spotify.codeless.support.DataStoreManager;
 import commons.restbase.RequestBase;
 import commons.restbase.ResponseBase;
+import commons.restbase.StreamingJsonBody;
+import commons.concurrent.VirtualThreadExecutors;
+import commons.logging.LogArguments;
+import commons.logging.SampledLogger;
+import commons.metrics.LatencySlas;
+import commons.metrics.RequestTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -33,6 +66,33 @@ public class GenericSteps {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericSteps.class);
 
+    /**
+     * Logger of the requests of the batch request steps, writing one out of 'log.sample.rate' messages of all scenarios.
+     */
+    private static final SampledLogger BATCH_LOGGER = new SampledLogger(LOGGER);
+
+    /**
+     * Executor running the requests of the async and batch request steps, one virtual thread per request when enabled and available.
+     */
+    private static final ExecutorService ASYNC_REQUEST_EXECUTOR = VirtualThreadExecutors.newThreadPerTaskExecutor("async-request",
+            ConfigLoader.getInstance().isVirtualThreadsEnabled());
+
+    /**
+     * Object mapper used to serialize request bodies for the fixture keys and to parse response bodies once for the body assertions.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The compiled JSON schemas, shared by all scenarios.
+     */
+    private static final JsonSchemaCache SCHEMA_CACHE = new JsonSchemaCache();
+
+    /**
+     * The duration in nanoseconds of the requests creating cached fixtures, keyed by their response and shared by all scenarios,
+     * so a scenario reusing a fixture checks the response time of the request that created it.
+     */
+    private static final Map<Response, Long> FIXTURE_RESPONSE_TIMES = Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * The instance of RequestBase class used to manage request specifications.
      */
@@ -48,28 +108,72 @@ public class GenericSteps {
      */
     protected Response response;
 
+    /**
+     * The response whose body was parsed last, to parse the body of each response once.
+     */
+    private Response parsedResponse;
+
+    /**
+     * The parsed body of the last parsed response, shared by the body assertions on that response.
+     */
+    private JsonNode responseTree;
+
+    /**
+     * The duration in nanoseconds of each request of the scenario, keyed by its response.
+     */
+    private final ConcurrentMap<Response, Long> responseTimes = new ConcurrentHashMap<>();
+
     /**
      * The instance of RequestBodyManager class used to manage and manipulate the body of the HTTP request.
      */
     private  final RequestBodyManager requestBodyManager;
 
+    /**
+     * The configuration of the test run.
+     */
+    private final ConfigLoader configLoader;
+
     /**
      * The instance of DataStoreManager class used to manage and manipulate the data store.
      */
     private final DataStoreManager dataStoreManager;
 
+    /**
+     * The instance of FixtureCache class used to share the responses of cacheable setup requests across scenarios.
+     */
+    private final FixtureCache fixtureCache;
+
+    /**
+     * The JSON body of the next request, set by the request body step.
+     */
+    private Object requestBody;
+
+    /**
+     * The request headers of the scenario with the properties replaced but the '{access_token}' placeholder kept,
+     * so requests sent later, e.g. fixture cleanups, are sent with a token that is valid at that time.
+     */
+    private final Map<String, String> requestHeaders = new LinkedHashMap<>();
+
+    /**
+     * The credential set of the token pool used for all requests of the scenario.
+     */
+    private final Credential credential;
+
     /**
      * Constructor to initialize the RegisterSteps class.
      *
      * @param dependencyContainer An instance of the DependencyContainer class
      */
     public GenericSteps(DependencyContainer dependencyContainer) {
-        LOGGER.info("Constructing GenericSteps");
+        LOGGER.debug("Constructing GenericSteps");
+        configLoader = dependencyContainer.configLoader;
         requestBase = dependencyContainer.requestBase;
         responseBase = dependencyContainer.responseBase;
         response = dependencyContainer.response;
         requestBodyManager = dependencyContainer.requestBodyManager;
         dataStoreManager = dependencyContainer.dataStoreManager;
+        fixtureCache = dependencyContainer.fixtureCache;
+        credential = dependencyContainer.credential;
     }
 
     //********** STEP DEFINITION METHODS **********
@@ -82,14 +186,11 @@ public class GenericSteps {
         }
         Map<String, String> header = new HashMap<>();
         for(int i=0; i<table.get(0).size(); i++) {
-            String resolvedRowTwoDataWithConfigFile = ConfigLoader.getInstance().replacePlaceholdersWithProperties(table.get(1).get(i));
-            String resolvedRowTwoDataWithConfigFileAndAccessToken = resolvedRowTwoDataWithConfigFile;
-            if (resolvedRowTwoDataWithConfigFile.contains("{access_token}")) {
-                resolvedRowTwoDataWithConfigFileAndAccessToken = resolvedRowTwoDataWithConfigFile.replace("{access_token}", TokenManager.getToken());
-            }
-            header.put(table.get(0).get(i), resolvedRowTwoDataWithConfigFileAndAccessToken);
+            String resolvedRowTwoDataWithConfigFile = configLoader.replacePlaceholdersWithProperties(table.get(1).get(i));
+            header.put(table.get(0).get(i), resolvedRowTwoDataWithConfigFile);
         }
-        requestBase.getRequestSpecification().headers(header);
+        requestHeaders.putAll(header);
+        requestBase.getRequestSpecification().headers(resolveAccessToken(header, credential));
     }
 
     @And("With request body: {string}")
@@ -98,43 +199,174 @@ public class GenericSteps {
         requestBodyManager.validateTableSize(table);
         Object jsonObj = requestBodyManager.readJsonFromFile(jsonFilePath);
         requestBodyManager.updateJsonWithDataTable(jsonObj, table);
-        requestBase.getRequestSpecification().body(jsonObj);
+        requestBody = jsonObj;
+        if (configLoader.isRequestBodyStreamingEnabled()) {
+            requestBase.getRequestSpecification().body(new StreamingJsonBody(jsonObj));
+        } else {
+            requestBase.getRequestSpecification().body(jsonObj);
+        }
     }
 
     @When("User makes a POST request to endpoint: {string}")
     public void user_makes_a_post_request_to_endpoint(String endpoint) {
-        String resolvedEndpointWithConfigFile = ConfigLoader.getInstance().replacePlaceholdersWithProperties(endpoint);
-        String resolvedEndpointWithConfigFileAndDataStore = dataStoreManager.resolvePlaceholdersWithData(resolvedEndpointWithConfigFile);
-        response = requestBase.getRequestSpecification().post(resolvedEndpointWithConfigFileAndDataStore).
-                then().spec(responseBase.getResponseSpecification()).extract().response();
-        requestBase.resetRequestSpecification();
+        response = sendRequest("POST", endpoint);
     }
 
     @When("User makes a GET request to endpoint: {string}")
     public void user_makes_a_get_request_to_endpoint(String endpoint) {
-        String resolvedEndpointWithConfigFile = ConfigLoader.getInstance().replacePlaceholdersWithProperties(endpoint);
-        String resolvedEndpointWithConfigFileAndDataStore = dataStoreManager.resolvePlaceholdersWithData(resolvedEndpointWithConfigFile);
-        response = requestBase.getRequestSpecification().get(resolvedEndpointWithConfigFileAndDataStore).
-                then().spec(responseBase.getResponseSpecification()).extract().response();
-        requestBase.resetRequestSpecification();
+        response = sendRequest("GET", endpoint);
     }
 
     @When("User makes a PUT request to endpoint: {string}")
     public void user_makes_a_put_request_to_endpoint(String endpoint) {
-        String resolvedEndpointWithConfigFile = ConfigLoader.getInstance().replacePlaceholdersWithProperties(endpoint);
-        String resolvedEndpointWithConfigFileAndDataStore = dataStoreManager.resolvePlaceholdersWithData(resolvedEndpointWithConfigFile);
-        response = requestBase.getRequestSpecification().put(resolvedEndpointWithConfigFileAndDataStore).
-                then().spec(responseBase.getResponseSpecification()).extract().response();
-        requestBase.resetRequestSpecification();
+        response = sendRequest("PUT", endpoint);
     }
 
     @When("User makes a DELETE request to endpoint: {string}")
     public void user_makes_a_delete_request_to_endpoint(String endpoint) {
-        String resolvedEndpointWithConfigFile = ConfigLoader.getInstance().replacePlaceholdersWithProperties(endpoint);
-        String resolvedEndpointWithConfigFileAndDataStore = dataStoreManager.resolvePlaceholdersWithData(resolvedEndpointWithConfigFile);
-        response = requestBase.getRequestSpecification().delete(resolvedEndpointWithConfigFileAndDataStore).
-                then().spec(responseBase.getResponseSpecification()).extract().response();
+        response = sendRequest("DELETE", endpoint);
+    }
+
+    @When("User makes a cacheable {word} request to endpoint: {string}")
+    public void user_makes_a_cacheable_request_to_endpoint(String method, String endpoint) throws JsonProcessingException {
+        if (!configLoader.isFixtureCacheEnabled()) {
+            response = sendRequest(method, endpoint);
+            return;
+        }
+        RequestSpecification requestSpecification = requestBase.getRequestSpecification();
+        String resolvedEndpoint = EndpointTemplate.compile(endpoint).render(configLoader, dataStoreManager);
+        String key = fixtureKey(method.toUpperCase(), resolvedEndpoint, requestBody);
+        requestBody = null;
+        requestBase.resetRequestSpecification();
+        response = fixtureCache.acquire(key, () -> {
+            Response fixtureResponse = executeRequest(requestSpecification, method, endpoint, resolvedEndpoint);
+            FIXTURE_RESPONSE_TIMES.put(fixtureResponse, responseTimes.get(fixtureResponse));
+            return fixtureResponse;
+        });
+        Long fixtureResponseTimeNanos = FIXTURE_RESPONSE_TIMES.get(response);
+        if (fixtureResponseTimeNanos != null) {
+            responseTimes.putIfAbsent(response, fixtureResponseTimeNanos);
+        }
+    }
+
+    @And("Cached fixture is cleaned up with a {word} request to endpoint: {string}")
+    public void cached_fixture_is_cleaned_up_with_a_request_to_endpoint(String method, String endpoint) {
+        String resolvedEndpoint = EndpointTemplate.compile(endpoint).render(configLoader, dataStoreManager);
         requestBase.resetRequestSpecification();
+        String apiBaseUri = configLoader.getApiBaseUri();
+        Map<String, String> headers = new LinkedHashMap<>(requestHeaders);
+        Credential cleanupCredential = credential;
+        Runnable cleanup = () -> {
+            LOGGER.info("Cleaning up fixture with {} request to endpoint: '{}'", method.toUpperCase(), resolvedEndpoint);
+            new RequestBase(apiBaseUri).getRequestSpecification()
+                    .headers(resolveAccessToken(headers, cleanupCredential))
+                    .request(method.toUpperCase(), resolvedEndpoint);
+        };
+        if (configLoader.isFixtureCacheEnabled()) {
+            fixtureCache.registerCleanup(cleanup);
+        } else {
+            fixtureCache.registerScenarioCleanup(cleanup);
+        }
+    }
+
+    @When("User makes an async {word} request to endpoint: {string} as: {string}")
+    public void user_makes_an_async_request_to_endpoint_as(String method, String endpoint, String responseName) {
+        RequestSpecification requestSpecification = RestAssured.given().spec(requestBase.getRequestSpecification());
+        ResponseSpecification responseSpecification = new ResponseBase().getResponseSpecification();
+        String resolvedEndpoint = EndpointTemplate.compile(endpoint).render(configLoader, dataStoreManager);
+        requestBase.resetRequestSpecification();
+        dataStoreManager.storeResponse(responseName, CompletableFuture.supplyAsync(
+                () -> executeRequest(requestSpecification, responseSpecification, method, endpoint, resolvedEndpoint), ASYNC_REQUEST_EXECUTOR));
+    }
+
+    @And("User waits for response: {string}")
+    public void user_waits_for_response(String responseName) {
+        response = dataStoreManager.getResponse(responseName);
+    }
+
+    @And("User waits for all responses")
+    public void user_waits_for_all_responses() {
+        dataStoreManager.awaitResponses();
+    }
+
+    @When("User makes batch requests")
+    public void user_makes_batch_requests(DataTable dataTable) throws InterruptedException {
+        List<Map<String, String>> rows = dataTable.asMaps(String.class, String.class);
+        if (rows.isEmpty() || !rows.get(0).containsKey("responseName") || !rows.get(0).containsKey("method") || !rows.get(0).containsKey("endpoint")) {
+            throw new IllegalArgumentException("DataTable must have the columns responseName | method | endpoint, and optionally body");
+        }
+        RequestSpecification template = requestBase.getRequestSpecification();
+        requestBase.resetRequestSpecification();
+        Set<String> responseNames = new HashSet<>();
+        List<RequestSpecification> requestSpecifications = new ArrayList<>(rows.size());
+        List<String> resolvedEndpoints = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            if (!responseNames.add(row.get("responseName"))) {
+                throw new IllegalArgumentException("Duplicate responseName in batch: " + row.get("responseName"));
+            }
+            resolvedEndpoints.add(EndpointTemplate.compile(row.get("endpoint")).render(configLoader, dataStoreManager));
+            RequestSpecification requestSpecification = RestAssured.given().spec(template);
+            String jsonFilePath = row.get("body");
+            if (jsonFilePath != null && !jsonFilePath.isEmpty()) {
+                requestSpecification.body(requestBodyManager.readJsonFromFile(jsonFilePath));
+            }
+            requestSpecifications.add(requestSpecification);
+        }
+
+        int parallelism = configLoader.getBatchParallelism();
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<Response>> results = new ArrayList<>(rows.size());
+        long[] latencyNanos = new long[rows.size()];
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, String> row = rows.get(i);
+            String method = row.get("method");
+            String endpoint = row.get("endpoint");
+            String resolvedEndpoint = resolvedEndpoints.get(i);
+            RequestSpecification requestSpecification = requestSpecifications.get(i);
+            ResponseSpecification responseSpecification = new ResponseBase().getResponseSpecification();
+            int index = i;
+            permits.acquire();
+            CompletableFuture<Response> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> {
+                    long requestStartNanos = System.nanoTime();
+                    try {
+                        return executeRequest(requestSpecification, responseSpecification, method, endpoint, resolvedEndpoint);
+                    } finally {
+                        latencyNanos[index] = System.nanoTime() - requestStartNanos;
+                        permits.release();
+                    }
+                }, ASYNC_REQUEST_EXECUTOR);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            dataStoreManager.storeResponse(row.get("responseName"), result);
+            results.add(result);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        logBatchReport(rows, results, latencyNanos, elapsedNanos, parallelism);
+        for (Map<String, String> row : rows) {
+            dataStoreManager.getResponse(row.get("responseName"));
+        }
+    }
+
+    @Then("Response time should be below {long} ms")
+    public void response_time_should_be_below_ms(long maxMillis) {
+        Long responseTimeNanos = responseTimes.get(response);
+        if (responseTimeNanos == null) {
+            throw new IllegalStateException("No response time recorded for the current response");
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(responseTimeNanos), Matchers.lessThan(maxMillis));
+    }
+
+    @Then("p{double} latency for {word} endpoint: {string} should be below {long} ms over the run")
+    public void latency_for_endpoint_should_be_below_ms_over_the_run(double percentile, String method, String endpoint, long maxMillis) {
+        LatencySlas.register(percentile, method.toUpperCase(), endpoint, maxMillis);
     }
 
     @Then("Response status code should be: {int}")
@@ -148,31 +380,209 @@ public class GenericSteps {
         if (rows.size() != 3) {
             throw new IllegalArgumentException("DataTable must have three rows");
         }
+        Map<String, Object> actualValues = extractResponseValues(rows.get(0));
         for(int i=0; i<rows.get(0).size(); i++) {
             String jsonPath = rows.get(0).get(i); // First Row
             Object expectedValue = rows.get(1).get(i); // Second Row
             String expectedValueType = rows.get(2).get(i); // Third Row
+            Object actualValue = actualValues.get(jsonPath);
 
             if (expectedValue.equals("NOT_NULL")) {
-                assertThat(response.getBody().path(jsonPath), CoreMatchers.notNullValue());
+                assertThat(actualValue, CoreMatchers.notNullValue());
             } else if (expectedValue.equals("NULL") || expectedValue.equals("null")) {
-                assertThat(response.getBody().path(jsonPath), CoreMatchers.nullValue());
+                assertThat(actualValue, CoreMatchers.nullValue());
             } else {
                 expectedValue = dataStoreManager.convertOrRetrieveExpectedValue(expectedValue, expectedValueType);
-                assertThat(response.getBody().path(jsonPath), CoreMatchers.equalTo(expectedValue));
+                assertThat(actualValue, CoreMatchers.equalTo(expectedValue));
             }
         }
     }
 
+    @And("Response body should match schema: {string}")
+    public void response_body_should_match_schema(String schemaFilePath) throws IOException {
+        List<String> errors = SCHEMA_CACHE.validate(schemaFilePath, getResponseTree());
+        assertThat("Response body should match schema: '" + schemaFilePath + "'", errors, Matchers.empty());
+    }
+
     @And("Store response body value in variable")
     public void store_response_body_value_in_variable(DataTable dataTable) {
         List<Map<String, String>> rows = dataTable.asMaps(String.class, String.class);
-        if (rows.get(0).size() != 3) {
-            throw new IllegalArgumentException("DataTable must have three columns. variableName | variableType | responsePath");
+        if (rows.get(0).size() != 3 && !(rows.get(0).size() == 4 && rows.get(0).containsKey("scope"))) {
+            throw new IllegalArgumentException("DataTable must have three columns. variableName | variableType | responsePath, and optionally scope");
+        }
+        List<String> responsePaths = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            responsePaths.add(row.get("responsePath"));
+        }
+        Map<String, Object> values = extractResponseValues(responsePaths);
+        for (Map<String, String> row : rows) {
+            dataStoreManager.storeExtractedValue(row, values.get(row.get("responsePath")));
+        }
+    }
+
+    //********** HELPER METHODS **********
+
+    /**
+     * Sends the request built by the previous steps and resets the request specification for the next request.
+     *
+     * @param method   the HTTP method
+     * @param endpoint the endpoint with '{{property}}' and '{variable}' placeholders
+     * @return the response
+     */
+    private Response sendRequest(String method, String endpoint) {
+        String resolvedEndpoint = EndpointTemplate.compile(endpoint).render(configLoader, dataStoreManager);
+        Response result = executeRequest(requestBase.getRequestSpecification(), method, endpoint, resolvedEndpoint);
+        requestBody = null;
+        requestBase.resetRequestSpecification();
+        return result;
+    }
+
+    /**
+     * Returns the body of the current response parsed into a tree. The body is parsed once per response.
+     *
+     * @return the parsed response body
+     * @throws IOException if the body is not valid JSON
+     */
+    private JsonNode getResponseTree() throws IOException {
+        if (parsedResponse != response) {
+            responseTree = OBJECT_MAPPER.readTree(response.asByteArray());
+            parsedResponse = response;
+        }
+        return responseTree;
+    }
+
+    /**
+     * Extracts the values of response paths from the parsed body of the current response. With response body streaming
+     * enabled, a body that has not been parsed yet is read in a single streaming pass instead.
+     *
+     * @param paths the response paths
+     * @return the values keyed by path; the value is null if the path is not found
+     */
+    private Map<String, Object> extractResponseValues(Collection<String> paths) {
+        if (configLoader.isResponseBodyStreamingEnabled() && parsedResponse != response) {
+            return ResponsePathExtractor.extract(response, paths);
         }
-        for(int i=0; i<rows.size(); i++) {
-            dataStoreManager.storeResponseBodyValue(rows.get(i), response);
+        try {
+            return ResponsePathExtractor.extract(getResponseTree(), response, paths);
+        } catch (IOException e) {
+            LOGGER.debug("Response body is not JSON, evaluating the paths with GPath", e);
+            Map<String, Object> values = new HashMap<>();
+            for (String path : paths) {
+                values.put(path, response.getBody().path(path));
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Replaces the '{access_token}' placeholder in request headers with the current token of a credential set.
+     *
+     * @param headers    the request headers, with the properties already replaced
+     * @param credential the credential set the token is requested for
+     * @return the request headers with the access token
+     */
+    private static Map<String, String> resolveAccessToken(Map<String, String> headers, Credential credential) {
+        Map<String, String> resolvedHeaders = new LinkedHashMap<>(headers);
+        for (Map.Entry<String, String> header : resolvedHeaders.entrySet()) {
+            if (header.getValue().contains("{access_token}")) {
+                header.setValue(header.getValue().replace("{access_token}", TokenManager.getToken(credential)));
+            }
+        }
+        return resolvedHeaders;
+    }
+
+    /**
+     * Builds the key of a cacheable request from the method, the resolved endpoint and a hash of the body.
+     *
+     * @param method           the HTTP method
+     * @param resolvedEndpoint the endpoint without placeholders
+     * @param body             the JSON body, or null if the request has no body
+     * @return the fixture key
+     * @throws JsonProcessingException if the body cannot be serialized
+     */
+    private static String fixtureKey(String method, String resolvedEndpoint, Object body) throws JsonProcessingException {
+        if (body == null) {
+            return method + " " + resolvedEndpoint;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(OBJECT_MAPPER.writeValueAsBytes(body));
+            StringBuilder key = new StringBuilder(method).append(' ').append(resolvedEndpoint).append(' ');
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Logs the latency of each request of a batch and the throughput of the whole batch.
+     *
+     * @param rows         the rows of the batch
+     * @param results      the completed responses of the rows
+     * @param latencyNanos the latency of each row in nanoseconds
+     * @param elapsedNanos the duration of the whole batch in nanoseconds
+     * @param parallelism  the maximum number of requests in flight
+     */
+    private void logBatchReport(List<Map<String, String>> rows, List<CompletableFuture<Response>> results, long[] latencyNanos, long elapsedNanos, int parallelism) {
+        long totalLatencyNanos = 0;
+        long maxLatencyNanos = 0;
+        long sampleRate = configLoader.getLogSampleRate();
+        for (int i = 0; i < rows.size(); i++) {
+            CompletableFuture<Response> result = results.get(i);
+            Object outcome = LogArguments.lazy(() -> result.isCompletedExceptionally() ? "FAILED" : result.join().getStatusCode());
+            BATCH_LOGGER.info(sampleRate, "Batch request '{}': {} {} -> {} in {} ms", rows.get(i).get("responseName"), rows.get(i).get("method"),
+                    rows.get(i).get("endpoint"), outcome, latencyNanos[i] / 1_000_000.0);
+            totalLatencyNanos += latencyNanos[i];
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos[i]);
+        }
+        LOGGER.info("Batch of {} requests with parallelism {} completed in {} ms: {} requests/s, average latency {} ms, max latency {} ms",
+                rows.size(), parallelism, elapsedNanos / 1_000_000.0, rows.size() * 1_000_000_000.0 / elapsedNanos,
+                totalLatencyNanos / 1_000_000.0 / rows.size(), maxLatencyNanos / 1_000_000.0);
+    }
+
+    /**
+     * Executes a request, records its latency under the endpoint template and for the response time step,
+     * and validates the response against the response specification of the scenario.
+     *
+     * @param requestSpecification the request to be executed
+     * @param method               the HTTP method
+     * @param endpoint             the endpoint with placeholders, as written in the feature file
+     * @param resolvedEndpoint     the endpoint without placeholders
+     * @return the response
+     */
+    private Response executeRequest(RequestSpecification requestSpecification, String method, String endpoint, String resolvedEndpoint) {
+        return executeRequest(requestSpecification, responseBase.getResponseSpecification(), method, endpoint, resolvedEndpoint);
+    }
+
+    /**
+     * Executes a request, records its latency under the endpoint template and for the response time step,
+     * and validates the response against the given response specification.
+     * Requests sent on the executor threads use their own response specification, as RestAssured specifications are not thread-safe.
+     * The method is upper-cased, so the latency is recorded under the same key as the errors counted by LoadTestReporter.
+     *
+     * @param requestSpecification  the request to be executed
+     * @param responseSpecification the response specification validating the response
+     * @param method                the HTTP method, in any case
+     * @param endpoint              the endpoint with placeholders, as written in the feature file
+     * @param resolvedEndpoint      the endpoint without placeholders
+     * @return the response
+     */
+    private Response executeRequest(RequestSpecification requestSpecification, ResponseSpecification responseSpecification,
+                                    String method, String endpoint, String resolvedEndpoint) {
+        String normalizedMethod = method.toUpperCase(Locale.ROOT);
+        RequestTimer timer = RequestTimer.start();
+        Response result;
+        long responseTimeNanos;
+        try {
+            result = requestSpecification.request(normalizedMethod, resolvedEndpoint);
+        } finally {
+            responseTimeNanos = timer.stop(normalizedMethod, endpoint);
         }
+        Response validatedResponse = result.then().spec(responseSpecification).extract().response();
+        responseTimes.put(validatedResponse, responseTimeNanos);
+        return validatedResponse;
     }
 
 }
@@ -3,14 +3,30 @@ package com.spotify.steps;
 import com.spotify.config.ConfigLoader;
 import com.spotify.codeless.support.RequestBodyManager;
 import com.spotify.codeless.support.DataStoreManager;
+import com.spotify.codeless.support.FixtureCache;
+import com.spotify.oauth.TokenManager;
+import com.spotify.stub.SpotifyStubServer;
+import commons.metrics.LatencyMetrics;
+import commons.metrics.LatencySlas;
+import commons.restbase.HttpConnectionPool;
+import commons.restbase.LogOverflowPolicy;
+import commons.restbase.RestLogLevel;
+import commons.restbase.RestLogging;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
 import commons.restbase.RequestBase;
 import commons.restbase.ResponseBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
 /**
  * This class manages common steps of test scenarios that need to be performed before and after each test.
  */
@@ -21,6 +37,11 @@ public class Hooks {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(Hooks.class);
 
+    /**
+     * The local Spotify stub server, started if the property "stub.server.port" is set.
+     */
+    private static SpotifyStubServer stubServer;
+
     /**
      * The instance of DependencyContainer class used to manage shared object instances.
      */
@@ -35,6 +56,38 @@ public class Hooks {
         this.dependencyContainer = dependencyContainer;
     }
 
+    /**
+     * This method sets up the shared resources once before any test scenario is executed.
+     *
+     * @throws IOException if the stub server cannot be started
+     */
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        ConfigLoader configLoader = ConfigLoader.getInstance();
+        if (configLoader.getStubServerPort() > 0) {
+            stubServer = new SpotifyStubServer(configLoader.getStubServerPort()).start();
+        }
+        RestLogging.configure(
+                RestLogLevel.valueOf(configLoader.getRestLogLevel().toUpperCase()),
+                configLoader.getRestLogBufferCapacity(),
+                LogOverflowPolicy.valueOf(configLoader.getRestLogOverflowPolicy().toUpperCase()));
+        RestLogging.configureFiles(
+                configLoader.getRestLogDirectory(),
+                configLoader.getRestLogFileMaxBytes(),
+                configLoader.getRestLogFileMaxBackups(),
+                configLoader.isRestLogMergeEnabled());
+        if (configLoader.isHttpPoolEnabled()) {
+            RequestBase.setConnectionPool(new HttpConnectionPool(
+                    configLoader.getHttpPoolMaxTotal(),
+                    configLoader.getHttpPoolMaxPerRoute(),
+                    configLoader.getHttpPoolIdleTimeoutMillis(),
+                    configLoader.getHttpPoolKeepAliveMillis(),
+                    configLoader.getHttpPoolEvictionIntervalMillis(),
+                    configLoader.getHttpPoolConnectionRequestTimeoutMillis()));
+        }
+        TokenManager.initialize();
+    }
+
     /**
      * This method sets up the environment before executing a test scenario.
      *
@@ -43,20 +96,65 @@ public class Hooks {
     @Before
     public void setUp(Scenario scenario) {
         LOGGER.info("XXXXXXXXXX" + " START TEST SCENARIO " + "XXXXXXXXXX");
-        LOGGER.info("Scenario: " + scenario.getName());
+        LOGGER.info("Scenario: {}", scenario.getName());
 
-        dependencyContainer.requestBase = new RequestBase(ConfigLoader.getInstance().getApiBaseUri());
+        dependencyContainer.configLoader = ConfigLoader.getInstance();
+        dependencyContainer.requestBase = new RequestBase(dependencyContainer.configLoader.getApiBaseUri());
         dependencyContainer.responseBase = new ResponseBase();
         dependencyContainer.requestBodyManager = new RequestBodyManager();
         dependencyContainer.dataStoreManager = new DataStoreManager();
+        dependencyContainer.fixtureCache = new FixtureCache();
+        dependencyContainer.credential = TokenManager.acquireCredential();
+        dependencyContainer.dataStoreManager.storeStringValue("user_id", dependencyContainer.credential.getUserId());
     }
 
     /**
      * This method is called after each scenario and performs necessary cleanup tasks.
+     * It waits for the async requests still in flight, so a failed request fails its own scenario and does not outlive it.
      */
     @After()
     public void tearDown() {
-        LOGGER.info("XXXXXXXXXX" + " END TEST SCENARIO " + "XXXXXXXXXX");
+        try {
+            dependencyContainer.dataStoreManager.awaitResponses();
+        } finally {
+            dependencyContainer.fixtureCache.releaseAll();
+            LOGGER.info("XXXXXXXXXX" + " END TEST SCENARIO " + "XXXXXXXXXX");
+        }
+    }
+
+    /**
+     * This method releases the shared resources once after all test scenarios are executed,
+     * then fails the run if any latency SLA declared by the scenarios is violated.
+     */
+    @AfterAll
+    public static void afterAll() {
+        FixtureCache.cleanUp();
+        LOGGER.info("Token metrics: {}", TokenManager.getMetrics().getSummary());
+        Path latencyReportDirectory = Paths.get(ConfigLoader.getInstance().getLatencyReportDirectory());
+        try {
+            LatencyMetrics.writeJson(latencyReportDirectory.resolve("latency.json"));
+            LatencyMetrics.writePrometheus(latencyReportDirectory.resolve("latency.prom"));
+        } catch (IOException e) {
+            LOGGER.error("Failed to write latency metrics to: '{}'", latencyReportDirectory, e);
+        }
+        HttpConnectionPool connectionPool = RequestBase.getConnectionPool();
+        if (connectionPool != null) {
+            LOGGER.info("HTTP connection pool statistics: {}", connectionPool.getStatisticsSummary());
+            connectionPool.shutdown();
+        }
+        RestLogging.shutdown();
+        DataStoreManager.clearGlobalValues();
+        if (stubServer != null) {
+            stubServer.stop();
+            stubServer = null;
+        }
+
+        List<String> slaViolations = LatencySlas.evaluate();
+        LatencySlas.reset();
+        if (!slaViolations.isEmpty()) {
+            throw new AssertionError(slaViolations.size() + " latency SLA(s) violated:" + System.lineSeparator()
+                    + String.join(System.lineSeparator(), slaViolations));
+        }
     }
 
 }
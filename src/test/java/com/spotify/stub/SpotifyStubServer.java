@@ -0,0 +1,290 @@
+package com.spotify.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class is a local, in-memory stand-in for the Spotify accounts and playlists API.
+ * It serves the token endpoint and the playlist endpoints used by the feature files,
+ * so benchmarks and load runs can be executed without network access or real credentials.
+ */
+public class SpotifyStubServer {
+
+    /**
+     * Logger object for logging purposes. It's declared as final because it's a constant.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpotifyStubServer.class);
+
+    /**
+     * Prefix of the access tokens issued by the stub.
+     */
+    private static final String TOKEN_PREFIX = "stub-";
+
+    /**
+     * Object mapper used to read and write the JSON bodies.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The playlists created on the stub, keyed by playlist ID.
+     */
+    private final Map<String, Map<String, Object>> playlists = new ConcurrentHashMap<>();
+
+    /**
+     * The underlying HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The threads handling the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a new SpotifyStubServer listening on the given port of the loopback interface.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the server cannot be bound
+     */
+    public SpotifyStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/api/token", this::handleToken);
+        server.createContext("/v1/", this::handleApi);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "spotify-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @return this server
+     */
+    public SpotifyStubServer start() {
+        server.start();
+        LOGGER.info("Spotify stub server started on port {}", getPort());
+        return this;
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        LOGGER.info("Spotify stub server stopped");
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the base URI of the stubbed API, the counterpart of the 'api.base.uri' property.
+     *
+     * @return the API base URI
+     */
+    public String getApiBaseUri() {
+        return "http://localhost:" + getPort() + "/v1";
+    }
+
+    /**
+     * Returns the base URI of the stubbed accounts service, the counterpart of the 'accounts.base.uri' property.
+     *
+     * @return the accounts base URI
+     */
+    public String getAccountsBaseUri() {
+        return "http://localhost:" + getPort();
+    }
+
+    /**
+     * Handles the token endpoint by issuing a new token for every request.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleToken(HttpExchange exchange) throws IOException {
+        readBody(exchange);
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("access_token", TOKEN_PREFIX + UUID.randomUUID());
+        token.put("token_type", "Bearer");
+        token.put("expires_in", 3600);
+        sendJson(exchange, 200, token);
+    }
+
+    /**
+     * Handles the playlist endpoints 'users/{user_id}/playlists', 'playlists/{playlist_id}' and 'playlists/{playlist_id}/followers'.
+     * Unfollowing a playlist removes it, as the Spotify API has no endpoint deleting a playlist.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleApi(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange);
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            sendError(exchange, 400, "Only valid bearer authentication supported");
+            return;
+        }
+        if (!authorization.startsWith("Bearer " + TOKEN_PREFIX)) {
+            sendError(exchange, 401, authorization.equals("Bearer invalid_access_token") ? "Invalid access token" : "The access token expired");
+            return;
+        }
+
+        String[] path = exchange.getRequestURI().getPath().substring("/v1/".length()).split("/");
+        String method = exchange.getRequestMethod();
+        if (path.length == 3 && path[0].equals("users") && path[2].equals("playlists") && method.equals("POST")) {
+            createPlaylist(exchange, path[1], body);
+        } else if (path.length == 2 && path[0].equals("playlists") && method.equals("GET")) {
+            Map<String, Object> playlist = playlists.get(path[1]);
+            if (playlist == null) {
+                sendError(exchange, 404, "Resource not found");
+            } else {
+                sendJson(exchange, 200, playlist);
+            }
+        } else if (path.length == 2 && path[0].equals("playlists") && method.equals("PUT")) {
+            updatePlaylist(exchange, path[1], body);
+        } else if (path.length == 3 && path[0].equals("playlists") && path[2].equals("followers") && method.equals("DELETE")) {
+            if (playlists.remove(path[1]) == null) {
+                sendError(exchange, 404, "Resource not found");
+            } else {
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        } else {
+            sendError(exchange, 404, "Service not found");
+        }
+    }
+
+    /**
+     * Creates a playlist from the request body.
+     *
+     * @param exchange the HTTP exchange
+     * @param userId   the ID of the owner
+     * @param body     the request body
+     * @throws IOException if the body cannot be parsed or the response cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    private void createPlaylist(HttpExchange exchange, String userId, byte[] body) throws IOException {
+        Map<String, Object> request = MAPPER.readValue(body, Map.class);
+        Object name = request.get("name");
+        if (name == null || name.toString().isEmpty()) {
+            sendError(exchange, 400, "Missing required field: name");
+            return;
+        }
+        String id = UUID.randomUUID().toString().replace("-", "").substring(0, 22);
+        Map<String, Object> playlist = new LinkedHashMap<>();
+        playlist.put("collaborative", false);
+        playlist.put("description", request.get("description"));
+        playlist.put("followers", Collections.singletonMap("total", 0));
+        playlist.put("id", id);
+        playlist.put("name", name);
+        playlist.put("owner", Collections.singletonMap("id", userId));
+        playlist.put("public", request.containsKey("public") ? request.get("public") : true);
+        playlist.put("type", "playlist");
+        playlists.put(id, playlist);
+        sendJson(exchange, 201, playlist);
+    }
+
+    /**
+     * Updates the name, description and visibility of a playlist from the request body.
+     *
+     * @param exchange   the HTTP exchange
+     * @param playlistId the ID of the playlist
+     * @param body       the request body
+     * @throws IOException if the body cannot be parsed or the response cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    private void updatePlaylist(HttpExchange exchange, String playlistId, byte[] body) throws IOException {
+        Map<String, Object> playlist = playlists.get(playlistId);
+        if (playlist == null) {
+            sendError(exchange, 404, "Resource not found");
+            return;
+        }
+        Map<String, Object> request = MAPPER.readValue(body, Map.class);
+        Map<String, Object> updated = new LinkedHashMap<>(playlist);
+        for (String field : new String[]{"name", "description", "public"}) {
+            if (request.containsKey(field)) {
+                updated.put(field, request.get(field));
+            }
+        }
+        playlists.put(playlistId, updated);
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+
+    /**
+     * Sends an error body in the format of the Spotify API.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param message  the error message
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("status", status);
+        error.put("message", message);
+        sendJson(exchange, status, Collections.singletonMap("error", error));
+    }
+
+    /**
+     * Sends the given object as JSON body.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param body     the object to be serialized
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the complete request body.
+     *
+     * @param exchange the HTTP exchange
+     * @return the request body
+     * @throws IOException if the body cannot be read
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+}
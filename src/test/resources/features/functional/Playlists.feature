@@ -2,15 +2,17 @@
 Feature: Playlists
 
   @smoke
-  Scenario: Verify Playlists. User should be able to create, get and update a playlist
+  Scenario: Verify Playlists. User should be able to create a playlist
     When With request headers
       | Content-Type     | Authorization  |
       | application/json | {access_token} |
     And With request body: "src/test/resources/test-data/CreatePlaylists.json"
       | name         | description              | public |
       | New Playlist | New playlist description | false  |
-    When User makes a POST request to endpoint: "users/{{user_id}}/playlists"
+    When User makes a cacheable POST request to endpoint: "users/{user_id}/playlists"
     Then Response status code should be: 201
+    And Response time should be below 5000 ms
+    And Response body should match schema: "src/test/resources/schema-reference/PlaylistSchema.json"
     And Response body should contains fields
       | id       | name         | description              | public  |
       | NOT_NULL | New Playlist | New playlist description | false   |
@@ -19,6 +21,22 @@ Feature: Playlists
       | variableName                  | variableType | responsePath    |
       | playlist_id_from_post_request | String       | id              |
       | followers_total               | Integer      | followers.total |
+    And Cached fixture is cleaned up with a DELETE request to endpoint: "playlists/{playlist_id_from_post_request}/followers"
+
+
+  Scenario: Verify Playlists. User should be able to get a playlist
+    When With request headers
+      | Content-Type     | Authorization  |
+      | application/json | {access_token} |
+    And With request body: "src/test/resources/test-data/CreatePlaylists.json"
+      | name         | description              | public |
+      | New Playlist | New playlist description | false  |
+    When User makes a cacheable POST request to endpoint: "users/{user_id}/playlists"
+    Then Response status code should be: 201
+    And Store response body value in variable
+      | variableName                  | variableType | responsePath |
+      | playlist_id_from_post_request | String       | id           |
+    And Cached fixture is cleaned up with a DELETE request to endpoint: "playlists/{playlist_id_from_post_request}/followers"
 
     When With request headers
       | Content-Type     | Authorization  |
@@ -30,6 +48,22 @@ Feature: Playlists
       | {playlist_id_from_post_request} | New Playlist | New playlist description | false   |
       | String                          | String       | String                   | Boolean |
 
+
+  @smoke
+  Scenario: Verify Playlists. User should be able to update a playlist
+    # The playlist is modified, so it is created for this scenario only instead of being shared through the fixture cache
+    When With request headers
+      | Content-Type     | Authorization  |
+      | application/json | {access_token} |
+    And With request body: "src/test/resources/test-data/CreatePlaylists.json"
+      | name               | description            | public |
+      | Playlist to update | Playlist to be updated | false  |
+    When User makes a POST request to endpoint: "users/{user_id}/playlists"
+    Then Response status code should be: 201
+    And Store response body value in variable
+      | variableName                  | variableType | responsePath |
+      | playlist_id_from_post_request | String       | id           |
+
     When With request headers
       | Content-Type     | Authorization  |
       | application/json | {access_token} |
@@ -57,8 +91,9 @@ Feature: Playlists
     And With request body: "src/test/resources/test-data/CreatePlaylists.json"
       | name   | description   | public   |
       | <name> | <description> | <public> |
-    When User makes a POST request to endpoint: "users/{{user_id}}/playlists"
+    When User makes a POST request to endpoint: "users/{user_id}/playlists"
     Then Response status code should be: <statusCode>
+    And Response body should match schema: "src/test/resources/schema-reference/ErrorSchema.json"
     And Response body should contains fields
       | error.status | error.message   |
       | <statusCode> | <error.message> |
@@ -75,8 +110,9 @@ Feature: Playlists
     And With request body: "src/test/resources/test-data/CreatePlaylists.json"
       | name         | description              | public |
       | New playlist | New playlist description | false  |
-    When User makes a POST request to endpoint: "users/{{user_id}}/playlists"
+    When User makes a POST request to endpoint: "users/{user_id}/playlists"
     Then Response status code should be: <statusCode>
+    And Response body should match schema: "src/test/resources/schema-reference/ErrorSchema.json"
     And Response body should contains fields
       | error.status | error.message   |
       | <statusCode> | <error.message> |